@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.util.Set;
+
 /**
  * Derived class that represents an assignment statement in the SILLY language.
  * 
@@ -31,6 +34,17 @@ public class Assignment extends Statement {
         this.valueExpr = new Expression(input);
     }
 
+    /**
+     * Reads a assignment statement written by AstEncoder.
+     *
+     * @param in the decoder to read from
+     * @throws IOException if the data is not a valid assignment statement
+     */
+    public Assignment(AstDecoder in) throws IOException {
+        this.targetVar = in.readToken();
+        this.valueExpr = new Expression(in);
+    }
+
     // ========================== Core Methods =============================
     /**
      * Executes the assignment by evaluating the expression and storing the result.
@@ -39,9 +53,26 @@ public class Assignment extends Statement {
      * @throws Exception if assignment is invalid or evaluation fails
      */
     @Override
-    public void execute() throws Exception {
-        validateAssignment();
-        storeValue();
+    public void execute(InterpreterContext context) throws Exception {
+        validateAssignment(context);
+        storeValue(context);
+    }
+
+    @Override
+    public boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        return this.valueExpr.isPure(context, visiting);   // assignments in a function are local
+    }
+
+    @Override
+    public Token boundVariable() {
+        return this.targetVar;
+    }
+
+    @Override
+    public void encode(AstEncoder out) throws IOException {
+        out.writeByte(AstEncoder.ASSIGNMENT);
+        out.writeToken(this.targetVar);
+        this.valueExpr.encode(out);
     }
 
     @Override
@@ -50,16 +81,21 @@ public class Assignment extends Statement {
     }
 
     // ========================= Helper Methods ===========================
-    private void validateAssignment() throws Exception {
-        if (Interpreter.MEMORY.isFunctionDeclared(this.targetVar.toString())) {
+    private void validateAssignment(InterpreterContext context) throws Exception {
+        if (context.getMemory().isFunctionDeclared(this.targetVar.toString())) {
             throw new Exception("RUNTIME ERROR: Cannot assign to '" + this.targetVar + "' - name exists as function");
         }
     }
 
-    private void storeValue() throws Exception {
-        if (!Interpreter.MEMORY.isDeclared(this.targetVar)) {
-            Interpreter.MEMORY.declareVariable(this.targetVar);
+    private void storeValue(InterpreterContext context) throws Exception {
+        MemorySpace memory = context.getMemory();
+        if (!memory.isDeclared(this.targetVar)) {
+            memory.declareVariable(this.targetVar);
+        }
+        if (this.valueExpr.isArithmetic()) {
+            memory.storeNumber(this.targetVar, this.valueExpr.evaluateNumber(context));
+        } else {
+            memory.storeValue(this.targetVar, this.valueExpr.evaluate(context));
         }
-        Interpreter.MEMORY.storeValue(this.targetVar, this.valueExpr.evaluate());
     }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class that caches parsed programs as binary ASTs (see AstEncoder) in
+ * .sillyc files, so a program that has not changed is loaded without being
+ * lexed or parsed. A cache file records the SHA-256 hash of the source text
+ * and the AST encoding it was written with (AstEncoder.FORMAT_VERSION), and
+ * is ignored unless both match.
+ *
+ * By default the cache for prog.silly is prog.sillyc in the same directory.
+ * If the system property silly.cache.dir (or the SILLY_CACHE_DIR environment
+ * variable) names a directory, cache files are kept there instead, named
+ * by the hash of the source. Setting silly.cache (or SILLY_CACHE) to "off"
+ * turns the cache off: nothing is loaded and no cache files are written.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class AstCache {
+
+    // ================================ Fields ================================
+    private static final int    MAGIC = 0x534C4143;             // "SLAC"
+    private static final int    FORMAT_VERSION = 4;             // layout of the cache file header
+    private static final String EXTENSION = ".sillyc";
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Loads the cached statements of a program, if its cache file is valid.
+     *
+     * @param source the program's source file
+     * @param text   the current contents of the source file
+     * @return the program's statements, or null if there is no valid cache
+     */
+    public static List<Statement> load(Path source, byte[] text) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String hash = hashOf(text);
+        Path cache = cacheFileFor(source, hash);
+        if (!Files.isRegularFile(cache)) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = Snapshot.map(cache);
+            AstDecoder in = new AstDecoder(buffer);
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+                    || in.readInt() != AstEncoder.FORMAT_VERSION || !hash.equals(in.readString())) {
+                return null;
+            }
+            ArrayList<Statement> stmts = in.readStatements();
+            return buffer.hasRemaining() ? null : stmts;
+        } catch (IOException | RuntimeException e) {
+            return null;                        // unreadable or corrupt: parse the source instead
+        }
+    }
+
+    /**
+     * Writes the cache file for a program. Failures (e.g., a read-only
+     * directory) are ignored, since the cache is only an optimization.
+     *
+     * @param source the program's source file
+     * @param text   the contents of the source file that were parsed
+     * @param stmts  the statements parsed from text
+     */
+    public static void store(Path source, byte[] text, List<Statement> stmts) {
+        if (!isEnabled()) {
+            return;
+        }
+        String hash = hashOf(text);
+        Path cache = cacheFileFor(source, hash);
+        Path temp = cache.resolveSibling(cache.getFileName() + ".tmp");
+        try {
+            AstEncoder out = new AstEncoder();
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(AstEncoder.FORMAT_VERSION);
+            out.writeString(hash);
+            out.writeStatements(stmts);
+            Files.write(temp, out.toByteArray());
+            Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // nothing more to clean up
+            }
+        }
+    }
+
+
+    /**
+     * Determines if the cache is in use, i.e., it has not been turned off
+     * with the silly.cache property or SILLY_CACHE environment variable.
+     *
+     * @return true unless the cache is off
+     */
+    public static boolean isEnabled() {
+        return !"off".equals(System.getProperty("silly.cache", System.getenv("SILLY_CACHE")));
+    }
+
+
+    // ============================ Private Helpers ==========================
+    /**
+     * Finds where the cache file for a source file belongs.
+     *
+     * @param source the program's source file
+     * @param hash   the hash of the source text
+     * @return the path of the cache file
+     */
+    private static Path cacheFileFor(Path source, String hash) {
+        String dir = System.getProperty("silly.cache.dir", System.getenv("SILLY_CACHE_DIR"));
+        if (dir != null && !dir.isEmpty()) {
+            return Paths.get(dir, hash + EXTENSION);
+        }
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return source.resolveSibling(((dot > 0) ? name.substring(0, dot) : name) + EXTENSION);
+    }
+
+    private static String hashOf(byte[] text) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(text)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);   // required of every JVM
+        }
+    }
+}
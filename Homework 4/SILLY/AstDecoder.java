@@ -0,0 +1,144 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Class that reads statements and values written by AstEncoder, straight
+ * from a byte buffer (e.g., a memory-mapped file), without lexing or
+ * parsing. Tokens with the same text are shared between the nodes read.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class AstDecoder {
+
+    // ================================ Fields ================================
+    private final ByteBuffer        in;
+    private final ArrayList<Token>  tokens;         // by string index, as written
+
+
+    // ============================= Constructors ============================
+    /**
+     * Constructs a decoder reading from the buffer's current position.
+     *
+     * @param in the encoded bytes
+     */
+    public AstDecoder(ByteBuffer in) {
+        this.in = in;
+        this.tokens = new ArrayList<Token>();
+    }
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Reads a statement and its source position, dispatching on its tag like
+     * Statement.getStatement dispatches on its first token.
+     *
+     * @return the statement read
+     * @throws IOException if the data is not a valid statement
+     */
+    public Statement readStatement() throws IOException {
+        int line = this.readInt();
+        int column = this.readInt();
+        Statement stmt = this.readNode(this.in.get());
+        stmt.setPosition(line, column);
+        return stmt;
+    }
+
+    private Statement readNode(byte tag) throws IOException {
+        switch (tag) {
+            case AstEncoder.ASSIGNMENT:         return new Assignment(this);
+            case AstEncoder.PRINT:              return new Print(this);
+            case AstEncoder.IF:                 return new If(this);
+            case AstEncoder.WHILE:              return new While(this);
+            case AstEncoder.REPEAT:             return new Repeat(this);
+            case AstEncoder.PARALLEL_REPEAT:    return new ParallelRepeat(this);
+            case AstEncoder.FOR:                return new For(this);
+            case AstEncoder.COMPOUND:           return new Compound(this);
+            case AstEncoder.FUNC:               return new FunctionDecl(this);
+            case AstEncoder.RETURN:             return new Return(this);
+            case AstEncoder.YIELD:              return new Yield(this);
+            default:
+                throw new IOException("Corrupt AST data (statement tag " + tag + ")");
+        }
+    }
+
+    public ArrayList<Statement> readStatements() throws IOException {
+        int count = this.readInt();
+        ArrayList<Statement> stmts = new ArrayList<Statement>(count);
+        for (int i = 0; i < count; i++) {
+            stmts.add(this.readStatement());
+        }
+        return stmts;
+    }
+
+    /**
+     * Reads a compound statement, such as the body of a loop.
+     *
+     * @return the compound statement read
+     * @throws IOException if the data is not a compound statement
+     */
+    public Compound readCompound() throws IOException {
+        Statement stmt = this.readStatement();
+        if (!(stmt instanceof Compound)) {
+            throw new IOException("Corrupt AST data (block expected)");
+        }
+        return (Compound) stmt;
+    }
+
+    public Token readToken() throws IOException {
+        int index = this.readInt();
+        if (index < 0) {
+            return null;
+        }
+        if (index == this.tokens.size()) {
+            byte[] utf8 = new byte[this.readInt()];
+            this.in.get(utf8);
+            this.tokens.add(new Token(new String(utf8, StandardCharsets.UTF_8)));
+        } else if (index > this.tokens.size()) {
+            throw new IOException("Corrupt AST data (string " + index + ")");
+        }
+        return this.tokens.get(index);
+    }
+
+    public String readString() throws IOException {
+        Token token = this.readToken();
+        return (token == null) ? null : token.toString();
+    }
+
+    /**
+     * Reads a value written by AstEncoder.writeValue.
+     *
+     * @return the value read, or null
+     * @throws IOException if the data is not a valid value
+     */
+    public DataValue readValue() throws IOException {
+        byte tag = this.in.get();
+        switch (tag) {
+            case AstEncoder.NULL_VALUE: return null;
+            case AstEncoder.NUMBER:     return NumberValue.valueOf(this.in.getDouble());
+            case AstEncoder.BOOLEAN:    return BooleanValue.valueOf(this.in.get() != 0);
+            case AstEncoder.CHAR:       return CharValue.valueOf(this.in.getChar());
+            case AstEncoder.STRING:     return StringValue.valueOf(this.readString());
+            case AstEncoder.RANGE: {
+                double start = this.in.getDouble();
+                double step = this.in.getDouble();
+                return RangeValue.withCount(start, step, this.readInt());
+            }
+            case AstEncoder.LIST: {
+                int count = this.readInt();
+                ArrayList<DataValue> elements = new ArrayList<DataValue>(count);
+                for (int i = 0; i < count; i++) {
+                    elements.add(this.readValue());
+                }
+                return ListValue.valueOf(elements);
+            }
+            default:
+                throw new IOException("Corrupt AST data (value tag " + tag + ")");
+        }
+    }
+
+    public byte readByte()  { return this.in.get(); }
+    public int readInt()    { return this.in.getInt(); }
+}
@@ -0,0 +1,156 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that writes parsed SILLY statements and values in a compact binary
+ * form, to be read back by AstDecoder without lexing or parsing. Every node
+ * writes a one-byte tag followed by its parts; token text is written once
+ * and referred to by index afterwards. Files holding encoded statements
+ * record FORMAT_VERSION, so data written by an older encoding is rejected.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class AstEncoder {
+
+    // ================================ Format ================================
+    static final int FORMAT_VERSION = 3;        // change whenever a node's encoding changes
+
+    // ============================== Node Tags ==============================
+    static final byte ASSIGNMENT = 1, PRINT = 2, IF = 3, WHILE = 4, REPEAT = 5,
+                      PARALLEL_REPEAT = 6, FOR = 7, COMPOUND = 8, FUNC = 9,
+                      RETURN = 10, YIELD = 11;
+
+    static final byte NULL_VALUE = 0, NUMBER = 1, BOOLEAN = 2, CHAR = 3, STRING = 4,
+                      LIST = 5, RANGE = 6;
+
+    // ================================ Fields ================================
+    private final ByteArrayOutputStream bytes;
+    private final DataOutputStream      out;
+    private final Map<String, Integer>  strings;     // index of each string already written
+
+
+    // ============================= Constructors ============================
+    /**
+     * Constructs an encoder writing to an in-memory buffer.
+     */
+    public AstEncoder() {
+        this.bytes = new ByteArrayOutputStream();
+        this.out = new DataOutputStream(this.bytes);
+        this.strings = new HashMap<String, Integer>();
+    }
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Writes a statement's source position followed by the statement itself.
+     * Statements nested in other statements are written through here too.
+     *
+     * @param stmt the statement to write
+     */
+    public void writeStatement(Statement stmt) throws IOException {
+        this.writeInt(stmt.getLine());
+        this.writeInt(stmt.getColumn());
+        stmt.encode(this);
+    }
+
+    public void writeStatements(List<Statement> stmts) throws IOException {
+        this.writeInt(stmts.size());
+        for (Statement stmt : stmts) {
+            this.writeStatement(stmt);
+        }
+    }
+
+    /**
+     * Writes a token, or null, by its text.
+     *
+     * @param token the token to write
+     */
+    public void writeToken(Token token) throws IOException {
+        this.writeString((token == null) ? null : token.toString());
+    }
+
+    /**
+     * Writes a string: its index if it has been written before, otherwise
+     * the next index followed by its UTF-8 bytes. Null is written as -1.
+     *
+     * @param str the string to write
+     */
+    public void writeString(String str) throws IOException {
+        if (str == null) {
+            this.writeInt(-1);
+            return;
+        }
+        Integer index = this.strings.get(str);
+        if (index != null) {
+            this.writeInt(index);
+            return;
+        }
+        this.writeInt(this.strings.size());
+        this.strings.put(str, this.strings.size());
+        byte[] utf8 = str.getBytes(StandardCharsets.UTF_8);
+        this.writeInt(utf8.length);
+        this.out.write(utf8);
+    }
+
+    /**
+     * Writes a value that can be stored in a variable. Tasks, channels and
+     * generator sequences are tied to running threads and cannot be written.
+     *
+     * @param value the value to write, or null
+     * @throws IOException if the value cannot be written
+     */
+    @SuppressWarnings("unchecked")
+    public void writeValue(DataValue value) throws IOException {
+        if (value == null) {
+            this.writeByte(NULL_VALUE);
+        } else if (value instanceof LazySeqValue || value.getType() == DataValue.Type.TASK
+                || value.getType() == DataValue.Type.CHANNEL) {
+            throw new IOException("cannot save a " + value.getType().toString().toLowerCase()
+                    + (value instanceof LazySeqValue ? " from a generator" : ""));
+        } else if (value instanceof RangeValue) {
+            RangeValue range = (RangeValue) value;
+            this.writeByte(RANGE);
+            this.out.writeDouble(range.getStart());
+            this.out.writeDouble(range.getStep());
+            this.writeInt(range.getCount());
+        } else if (value.getType() == DataValue.Type.NUMBER) {
+            this.writeByte(NUMBER);
+            this.out.writeDouble(((NumberValue) value).toDouble());
+        } else if (value.getType() == DataValue.Type.BOOLEAN) {
+            this.writeByte(BOOLEAN);
+            this.writeByte(((Boolean) value.getValue()) ? 1 : 0);
+        } else if (value.getType() == DataValue.Type.CHAR) {
+            this.writeByte(CHAR);
+            this.out.writeChar((Character) value.getValue());
+        } else if (value.getType() == DataValue.Type.STRING) {
+            this.writeByte(STRING);
+            this.writeString(value.toString());
+        } else {
+            List<DataValue> elements = (List<DataValue>) value.getValue();
+            this.writeByte(LIST);
+            this.writeInt(elements.size());
+            for (DataValue element : elements) {
+                this.writeValue(element);
+            }
+        }
+    }
+
+    public void writeByte(int b) throws IOException  { this.out.writeByte(b); }
+    public void writeInt(int n) throws IOException   { this.out.writeInt(n); }
+
+    /**
+     * Gets everything written so far.
+     *
+     * @return the encoded bytes
+     */
+    public byte[] toByteArray() throws IOException {
+        this.out.flush();
+        return this.bytes.toByteArray();
+    }
+}
@@ -7,6 +7,9 @@
 public class BooleanValue implements DataValue {
 
     // ================================== Fields ==================================
+    public static final BooleanValue TRUE  = new BooleanValue(true);
+    public static final BooleanValue FALSE = new BooleanValue(false);
+
     private final boolean logicalValue;
 
 
@@ -33,6 +36,18 @@ public class BooleanValue implements DataValue {
         this.logicalValue = val;
     }
 
+    /**
+     * Returns the shared Boolean value for the given primitive.
+     * Only two Boolean values ever need to exist, so callers should prefer
+     * this over the constructor.
+     * 
+     * @param val the value being stored
+     * @return the canonical TRUE or FALSE instance
+     */
+    public static BooleanValue valueOf(boolean val) {
+        return val ? TRUE : FALSE;
+    }
+
     /**
      * Converts the Boolean value to a String.
      * 
@@ -51,4 +66,14 @@ public class BooleanValue implements DataValue {
     public int compareTo(DataValue other) {
         return ((Boolean) this.getValue()).compareTo((Boolean) other.getValue());
     }
+
+    @Override
+    public boolean equals(Object other) {
+        return (other instanceof BooleanValue) && ((BooleanValue) other).logicalValue == this.logicalValue;
+    }
+
+    @Override
+    public int hashCode() {
+        return Boolean.hashCode(this.logicalValue);
+    }
 }
\ No newline at end of file
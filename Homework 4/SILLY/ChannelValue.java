@@ -0,0 +1,71 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class that represents a bounded channel for passing values between tasks.
+ * A channel of capacity 0 is a rendezvous: each send waits for a receive.
+ * Channels are ordered by when they were created.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class ChannelValue implements DataValue {
+
+    // ================================ Fields ================================
+    private static final AtomicLong        CREATED = new AtomicLong();
+
+    private final BlockingQueue<DataValue> queue;
+    private final int                      capacity;
+    private final long                     id;          // creation order, for compareTo
+
+
+    // ============================= Constructors ============================
+    /**
+     * Constructs an empty channel.
+     *
+     * @param capacity the number of values that can be sent without a receive
+     */
+    public ChannelValue(int capacity) {
+        this.capacity = capacity;
+        this.id = CREATED.getAndIncrement();
+        this.queue = (capacity == 0) ? new SynchronousQueue<DataValue>()
+                                     : new ArrayBlockingQueue<DataValue>(capacity);
+    }
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Puts a value on the channel, waiting while it is full.
+     *
+     * @param val the value to send
+     * @throws InterruptedException if the sending thread is interrupted
+     */
+    public void send(DataValue val) throws InterruptedException {
+        this.queue.put(val);
+    }
+
+    /**
+     * Takes the oldest value off the channel, waiting while it is empty.
+     *
+     * @return the value received
+     * @throws InterruptedException if the receiving thread is interrupted
+     */
+    public DataValue receive() throws InterruptedException {
+        return this.queue.take();
+    }
+
+    @Override
+    public Object getValue()          { return this.queue; }
+    @Override
+    public DataValue.Type getType()   { return DataValue.Type.CHANNEL; }
+
+    @Override
+    public int compareTo(DataValue other) {
+        return Long.compare(this.id, ((ChannelValue) other).id);
+    }
+
+    @Override
+    public String toString()          { return "<channel " + this.capacity + ">"; }
+}
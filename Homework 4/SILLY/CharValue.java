@@ -1,3 +1,5 @@
+import java.io.IOException;
+
 /**
  * Class that represents a character value.
  * 
@@ -7,8 +9,16 @@
 public class CharValue implements DataValue {
 
     // ================================ Fields ================================
+    private static final CharValue[] LATIN1 = new CharValue[256];   // shared Latin-1 instances
+
     private final Character charValue;   // renamed from value for clarity
 
+    static {
+        for (char c = 0; c < LATIN1.length; c++) {
+            LATIN1[c] = new CharValue(c);
+        }
+    }
+
     // ============================= Core Methods ============================
     @Override
     public Object getValue() { return this.charValue; }
@@ -21,6 +31,17 @@ public class CharValue implements DataValue {
         return ((Character) this.getValue()).compareTo((Character) other.getValue());
     }
 
+    @Override
+    public boolean equals(Object other) {
+        return (other instanceof CharValue) && ((CharValue) other).charValue.equals(this.charValue);
+    }
+
+    @Override
+    public int hashCode() { return this.charValue.hashCode(); }
+
+    @Override
+    public void writeTo(Appendable out) throws IOException { out.append(this.charValue); }
+
     @Override
     public String toString() { return "" + this.charValue; }
 
@@ -28,4 +49,14 @@ public class CharValue implements DataValue {
     public CharValue() { this('_'); }  // default char is underscore
 
     public CharValue(char c) { this.charValue = c; }
-}
\ No newline at end of file
+
+    /**
+     * Returns a character value, reusing a shared instance for Latin-1 characters.
+     *
+     * @param c the character being stored
+     * @return a CharValue holding c
+     */
+    public static CharValue valueOf(char c) {
+        return (c < LATIN1.length) ? LATIN1[c] : new CharValue(c);
+    }
+}
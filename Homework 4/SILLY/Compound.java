@@ -1,4 +1,7 @@
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Derived class that represents a compound statement in the SILLY language.
@@ -10,6 +13,8 @@ public class Compound extends Statement {
 
     // =========================== Fields ===========================
     private final ArrayList<Statement>    statements;
+    private final Token[]                 bindings;     // variables the block may declare
+    private Token[]                       unresolved;   // bindings not certain to be declared (see resolveScopes)
 
 
     // ======================= Constructor =========================
@@ -25,23 +30,120 @@ public class Compound extends Statement {
         this.statements = new ArrayList<Statement>();
         parseStatements(input);
         validateCloseBrace(input);
+        this.bindings = collectBindings();
+        this.resolveScopes(new HashSet<Token>());
+    }
+
+    /**
+     * Reads a compound statement written by AstEncoder.
+     *
+     * @param in the decoder to read from
+     * @throws IOException if the data is not a valid compound statement
+     */
+    public Compound(AstDecoder in) throws IOException {
+        this.statements = new ArrayList<Statement>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            this.statements.add(in.readStatement());
+        }
+        this.bindings = collectBindings();
+        this.resolveScopes(new HashSet<Token>());
     }
 
 
     // ====================== Core Methods ========================
+    /**
+     * Executes the block in a new nested scope. The scope is skipped when
+     * the block cannot declare anything in it, i.e., every variable it
+     * assigns is certain to be declared already (see resolveScopes) or is
+     * a declared global assigned outside of any function, and it declares
+     * no functions.
+     *
+     * @throws Exception if any statement execution fails
+     */
     @Override
-    public void execute() throws Exception {
-        Interpreter.MEMORY.beginNestedScope();
+    public void execute(InterpreterContext context) throws Exception {
+        if (!needsScope(context)) {
+            executeStatements(context);
+            return;
+        }
+        context.getMemory().beginNestedScope();
         try {
-            executeStatements();
+            executeStatements(context);
         } catch (Return.ReturnException re) {
-            Interpreter.MEMORY.endCurrentScope();
+            context.getMemory().endCurrentScope();
             throw re;
         } catch (Exception e) {
-            Interpreter.MEMORY.endCurrentScope();
+            context.getMemory().endCurrentScope();
             throw e;
         }
-        Interpreter.MEMORY.endCurrentScope();
+        context.getMemory().endCurrentScope();
+    }
+
+    /**
+     * Executes the block in the current scope, e.g. a function body, which
+     * runs directly in the scope created for the call.
+     *
+     * @throws Exception if any statement execution fails
+     */
+    void executeInCurrentScope(InterpreterContext context) throws Exception {
+        executeStatements(context);
+    }
+
+    @Override
+    public boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        for (Statement stmt : this.statements) {
+            if (!stmt.isPure(context, visiting)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the bindings of the block that are not certain to be declared
+     * when it runs, and resolves the blocks inside it. A variable assigned
+     * by a statement of the block is certain to be declared for the
+     * statements after it, since a failing statement ends the block.
+     * 
+     * @param declared the names certain to be declared where the block runs
+     */
+    @Override
+    void resolveScopes(Set<Token> declared) {
+        ArrayList<Token> names = new ArrayList<Token>();
+        for (Token name : this.bindings) {
+            if (!declared.contains(name)) {
+                names.add(name);
+            }
+        }
+        this.unresolved = names.toArray(new Token[0]);
+
+        Set<Token> visible = new HashSet<Token>(declared);
+        for (Statement stmt : this.statements) {
+            stmt.resolveScopes(visible);
+            if (stmt.boundVariable() != null) {
+                visible.add(stmt.boundVariable());
+            }
+        }
+    }
+
+    @Override
+    public boolean yields() {
+        for (Statement stmt : this.statements) {
+            if (stmt.yields()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void encode(AstEncoder out) throws IOException {
+        out.writeByte(AstEncoder.COMPOUND);
+        out.writeInt(this.statements.size());
+        for (Statement stmt : this.statements) {
+            out.writeStatement(stmt);
+        }
     }
 
     @Override
@@ -77,15 +179,44 @@ public class Compound extends Statement {
         }
     }
 
+    private Token[] collectBindings() {
+        ArrayList<Token> names = new ArrayList<Token>();
+        for (Statement stmt : this.statements) {
+            Token name = stmt.boundVariable();
+            if (name != null && !names.contains(name)) {
+                names.add(name);
+            }
+        }
+        return names.toArray(new Token[0]);
+    }
+
+    /**
+     * Determines if the block needs its own scope: a statement could
+     * declare a variable that is not yet visible. Only the bindings left
+     * unresolved are checked, and only against the globals (which, once
+     * declared, stay declared) when no function frame has been entered;
+     * scopes are never searched.
+     *
+     * @return true if a nested scope must be created
+     */
+    private boolean needsScope(InterpreterContext context) {
+        for (Token name : this.unresolved) {
+            if (!context.getMemory().assignsGlobal(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Reads and executes all statements in the compound block.
      * Provides scope for variable declarations.
      *
      * @throws Exception if any statement execution fails
      */
-    private void executeStatements() throws Exception {
+    private void executeStatements(InterpreterContext context) throws Exception {
         for (Statement stmt : this.statements) {
-            stmt.execute();
+            stmt.execute(context);
         }
     }
 }
\ No newline at end of file
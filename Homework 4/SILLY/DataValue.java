@@ -1,3 +1,5 @@
+import java.io.IOException;
+
 /**
  * Interface that defines the data types for the SILLY language.
  * 
@@ -8,7 +10,8 @@ public interface DataValue extends Comparable<DataValue> {
     // ================================= Type System ================================
     enum Type {
         NUMBER(1),        BOOLEAN(2),        LIST(3),
-        CHAR(4),          STRING(5),         FUNCTION(6);
+        CHAR(4),          STRING(5),         FUNCTION(6),
+        TASK(7),          CHANNEL(8);
         
         private final int code;
         
@@ -41,5 +44,17 @@ public interface DataValue extends Comparable<DataValue> {
      */
     int compareTo(DataValue other);
 
+    /**
+     * Writes the printed form of this value to an output sink.
+     * Sequence values override this to stream their elements directly
+     * instead of building an intermediate String.
+     * 
+     * @param out the sink to write to
+     * @throws IOException if the sink cannot be written
+     */
+    default void writeTo(Appendable out) throws IOException {
+        out.append(this.toString());
+    }
+
     String toString();
 }
\ No newline at end of file
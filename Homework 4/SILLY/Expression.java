@@ -1,4 +1,11 @@
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Class that represents an expression in the SILLY language.
@@ -9,8 +16,11 @@ import java.util.ArrayList;
 public class Expression {
 
     // =================================== Fields ===================================
+    private static final int PARALLEL_THRESHOLD = 2048;    // min elements for a parallel map/filter
+
     private Token tok;
     private ArrayList<Expression> exprs;
+    private DataValue constant;            // pre-built value for literal tokens
 
 
     // ================================ Core Methods ================================
@@ -33,25 +43,135 @@ public class Expression {
         else if (!isValidLiteral(this.tok)) {
             throw new Exception("SYNTAX ERROR: Unknown value (" + this.tok + ").");
         }
+        else if (this.tok.getType() != Token.Type.IDENTIFIER) {
+            this.constant = evaluateLiteral();
+        }
+    }
+
+    /**
+     * Reads an expression written by encode.
+     *
+     * @param in the decoder to read from
+     * @throws IOException if the data is not a valid expression
+     */
+    public Expression(AstDecoder in) throws IOException {
+        this.tok = in.readToken();
+        int count = in.readInt();
+        if (count >= 0) {
+            this.exprs = new ArrayList<Expression>(count);
+            for (int i = 0; i < count; i++) {
+                this.exprs.add(new Expression(in));
+            }
+        } else if (this.tok.getType() != Token.Type.IDENTIFIER) {
+            try {
+                this.constant = evaluateLiteral();
+            } catch (Exception e) {
+                throw new IOException("Corrupt AST data (literal " + this.tok + ")");
+            }
+        }
+    }
+
+    /**
+     * Writes the expression in binary form: its token, then the number of
+     * subexpressions (-1 for a literal or variable) and the subexpressions.
+     *
+     * @param out the encoder to write to
+     * @throws IOException if the expression cannot be written
+     */
+    public void encode(AstEncoder out) throws IOException {
+        out.writeToken(this.tok);
+        if (this.exprs == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(this.exprs.size());
+        for (Expression e : this.exprs) {
+            e.encode(out);
+        }
     }
 
     /**
      * Evaluates this expression to produce a DataValue.
      * Handles simple values, lists, and function calls.
      *
+     * @param context the interpreter state (memory and output) to evaluate against
      * @return DataValue result of evaluation
      * @throws Exception if evaluation fails
      */
-    public DataValue evaluate() throws Exception {
+    public DataValue evaluate(InterpreterContext context) throws Exception {
         if (this.exprs == null) {
-            return evaluateSimpleExpression();
+            return evaluateSimpleExpression(context);
         }
         else if (this.tok.toString().equals("[")) {
-            return evaluateListExpression();
+            return evaluateListExpression(context);
         }
         else {
-            return evaluateFunctionExpression();
+            return evaluateFunctionExpression(context);
+        }
+    }
+
+
+    /**
+     * Evaluates this expression, which must produce a number, without
+     * boxing the result. Literals, numeric variables and math functions are
+     * handled directly; anything else is evaluated and unboxed.
+     *
+     * @param context the interpreter state (memory and output) to evaluate against
+     * @return the number the expression evaluates to
+     * @throws Exception if evaluation fails or the result is not a number
+     */
+    public double evaluateNumber(InterpreterContext context) throws Exception {
+        if (this.exprs == null && this.constant == null) {
+            MemorySpace memory = context.getMemory();
+            if (!memory.isDeclared(this.tok)) {
+                throw new Exception(
+                        "RUNTIME ERROR: variable " +
+                                this.tok +
+                                " is undeclared.");
+            }
+            return memory.lookupNumber(this.tok);
+        }
+        if (this.exprs != null && this.tok.getType() == Token.Type.MATH_FUNC) {
+            return computeMathFunction(context);
+        }
+        return NumberValue.toNumber(evaluate(context));
+    }
+
+    /**
+     * Determines whether this expression is a math function, whose result
+     * can be produced unboxed by evaluateNumber.
+     *
+     * @return true if the expression is (+ ...), (* ...) or (/ ...)
+     */
+    public boolean isArithmetic() {
+        return this.exprs != null && this.tok.getType() == Token.Type.MATH_FUNC;
+    }
+
+    /**
+     * Determines whether evaluating this expression can only affect the
+     * variables of the function it runs in (see Statement.isPure).
+     *
+     * @param context  the interpreter state used to resolve called functions
+     * @param visiting functions already being checked (assumed pure)
+     * @return true if the expression is free of outside effects
+     */
+    public boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        if (this.exprs == null) {
+            return true;
+        }
+        for (Expression e : this.exprs) {
+            if (!e.isPure(context, visiting)) {
+                return false;
+            }
+        }
+        if (this.tok.getType() == Token.Type.TASK_FUNC) {
+            return false;
+        } else if (this.tok.getType() == Token.Type.IDENTIFIER) {
+            return isPureFunction(context, this.tok, visiting);
+        } else if (isHigherOrderFunction() && !this.exprs.isEmpty()) {
+            return isPureFunction(context, this.exprs.get(0).tok, visiting);
         }
+        return true;
     }
 
 
@@ -60,7 +180,8 @@ public class Expression {
         if (input.lookAhead().getType() != Token.Type.IDENTIFIER &&
                 input.lookAhead().getType() != Token.Type.MATH_FUNC &&
                 input.lookAhead().getType() != Token.Type.BOOL_FUNC &&
-                input.lookAhead().getType() != Token.Type.SEQ_FUNC) {
+                input.lookAhead().getType() != Token.Type.SEQ_FUNC &&
+                input.lookAhead().getType() != Token.Type.TASK_FUNC) {
             throw new Exception(
                     "SYNTAX ERROR: Identifier or function expected in expression.");
         }
@@ -88,48 +209,64 @@ public class Expression {
                token.getType() == Token.Type.STR_LITERAL;
     }
 
-    private DataValue evaluateSimpleExpression() throws Exception {
-        if (this.tok.getType() == Token.Type.IDENTIFIER) {
-            if (!Interpreter.MEMORY.isDeclared(this.tok)) {
-                throw new Exception(
-                        "RUNTIME ERROR: variable " +
-                                this.tok +
-                                " is undeclared.");
-            }
-            return Interpreter.MEMORY.lookupValue(this.tok);
-        } else if (this.tok.getType() == Token.Type.NUM_LITERAL) {
-            return new NumberValue(Double.parseDouble(this.tok.toString()));
+    private DataValue evaluateSimpleExpression(InterpreterContext context) throws Exception {
+        if (this.constant != null) {
+            return this.constant;
+        }
+        MemorySpace memory = context.getMemory();
+        if (!memory.isDeclared(this.tok)) {
+            throw new Exception(
+                    "RUNTIME ERROR: variable " +
+                            this.tok +
+                            " is undeclared.");
+        }
+        return memory.lookupValue(this.tok);
+    }
+
+    /**
+     * Builds the value of a literal token once, at parse time.
+     * Values are immutable, so every evaluation can share the same object.
+     *
+     * @return DataValue represented by the literal
+     * @throws Exception if the literal is of an unknown format
+     */
+    private DataValue evaluateLiteral() throws Exception {
+        if (this.tok.getType() == Token.Type.NUM_LITERAL) {
+            return NumberValue.valueOf(Double.parseDouble(this.tok.toString()));
         } else if (this.tok.getType() == Token.Type.BOOL_LITERAL) {
-            return new BooleanValue(Boolean.valueOf(this.tok.toString()));
+            return BooleanValue.valueOf(Boolean.parseBoolean(this.tok.toString()));
         } else if (this.tok.getType() == Token.Type.CHAR_LITERAL) {
-            return new CharValue(this.tok.toString().charAt(1));
+            return CharValue.valueOf(this.tok.toString().charAt(1));
         } else if (this.tok.getType() == Token.Type.STR_LITERAL) {
             String str = this.tok.toString();
-            return new StringValue(str.substring(1, str.length() - 1));
+            return StringValue.valueOf(str.substring(1, str.length() - 1));
         }
         throw new Exception("RUNTIME ERROR: Unknown expression format.");
     }
 
-    private DataValue evaluateListExpression() throws Exception {
+    private DataValue evaluateListExpression(InterpreterContext context) throws Exception {
         ArrayList<DataValue> vals = new ArrayList<DataValue>();
         for (Expression e : this.exprs) {
-            vals.add(e.evaluate());
+            vals.add(e.evaluate(context));
         }
-        return new ListValue(vals);
+        return ListValue.valueOf(vals);
     }
 
-    private DataValue evaluateFunctionExpression() throws Exception {
+    private DataValue evaluateFunctionExpression(InterpreterContext context) throws Exception {
         if (this.tok.getType() == Token.Type.MATH_FUNC) {
-            return evaluateMathFunction();
+            return evaluateMathFunction(context);
         }
         else if (this.tok.getType() == Token.Type.BOOL_FUNC) {
-            return evaluateBooleanFunction();
+            return evaluateBooleanFunction(context);
         }
         else if (this.tok.getType() == Token.Type.SEQ_FUNC) {
-            return evaluateSequenceFunction();
+            return evaluateSequenceFunction(context);
+        }
+        else if (this.tok.getType() == Token.Type.TASK_FUNC) {
+            return evaluateTaskFunction(context);
         }
         else if (this.tok.getType() == Token.Type.IDENTIFIER) {
-            return evaluateUserFunction();
+            return evaluateUserFunction(context);
         }
         throw new Exception("RUNTIME ERROR: Unknown expression format.");
     }
@@ -141,32 +278,35 @@ public class Expression {
      * @return NumberValue containing result
      * @throws Exception if arity or types are invalid
      */
-    private DataValue evaluateMathFunction() throws Exception {
+    private DataValue evaluateMathFunction(InterpreterContext context) throws Exception {
+        return NumberValue.valueOf(computeMathFunction(context));
+    }
+
+    /**
+     * Computes a math function (+, *, /) on unboxed numbers. Operands are
+     * themselves evaluated with evaluateNumber, so nested arithmetic and
+     * numeric variables never create NumberValue objects.
+     *
+     * @return the result of the function
+     * @throws Exception if arity or types are invalid
+     */
+    private double computeMathFunction(InterpreterContext context) throws Exception {
         if (this.exprs.size() < 2) {
             throw new Exception(
                     "RUNTIME ERROR: Incorrect arity in math expression.");
         }
-        DataValue first = this.exprs.get(0).evaluate();
-        if (first.getType() != DataValue.Type.NUMBER) {
-            throw new Exception(
-                    "RUNTIME ERROR: Number value expected.");
-        }
-        Double returnVal = (Double) first.getValue();
+        double returnVal = this.exprs.get(0).evaluateNumber(context);
         for (int i = 1; i < this.exprs.size(); i++) {
-            DataValue val = this.exprs.get(i).evaluate();
-            if (val.getType() != DataValue.Type.NUMBER) {
-                throw new Exception(
-                        "RUNTIME ERROR: Number value expected.");
-            }
+            double val = this.exprs.get(i).evaluateNumber(context);
             if (this.tok.toString().equals("+")) {
-                returnVal = returnVal + ((Double) val.getValue());
+                returnVal = returnVal + val;
             } else if (this.tok.toString().equals("*")) {
-                returnVal = returnVal * ((Double) val.getValue());
+                returnVal = returnVal * val;
             } else if (this.tok.toString().equals("/")) {
-                returnVal = returnVal / ((Double) val.getValue());
+                returnVal = returnVal / val;
             }
         }
-        return new NumberValue(returnVal);
+        return returnVal;
     }
 
     /**
@@ -176,18 +316,18 @@ public class Expression {
      * @return BooleanValue containing result
      * @throws Exception if arity or types are invalid
      */
-    private DataValue evaluateBooleanFunction() throws Exception {
+    private DataValue evaluateBooleanFunction(InterpreterContext context) throws Exception {
         if (this.tok.toString().equals("not")) {
             if (this.exprs.size() != 1) {
                 throw new Exception(
                         "RUNTIME ERROR: The `not` operator requires one expression.");
             } else {
-                DataValue val = this.exprs.get(0).evaluate();
+                DataValue val = this.exprs.get(0).evaluate(context);
                 if (val.getType() != DataValue.Type.BOOLEAN) {
                     throw new Exception(
                             "RUNTIME ERROR: Boolean value expected.");
                 } else {
-                    return new BooleanValue(
+                    return BooleanValue.valueOf(
                             !((Boolean) val.getValue()));
                 }
             }
@@ -198,25 +338,25 @@ public class Expression {
                         "RUNTIME ERROR: The number of arguments in an `and` or `or` expression must be greater than or equal to two.");
             } else {
                 for (int i = 0; i < this.exprs.size(); i++) {
-                    DataValue val = this.exprs.get(i).evaluate();
+                    DataValue val = this.exprs.get(i).evaluate(context);
                     if (val.getType() != DataValue.Type.BOOLEAN) {
                         throw new Exception(
                                 "RUNTIME ERROR: Boolean value expected.");
                     }
                     if (this.tok.toString().equals("and")) {
                         if ((Boolean) val.getValue() == false) {
-                            return new BooleanValue(false);
+                            return BooleanValue.FALSE;
                         }
                     } else if (this.tok.toString().equals("or")) {
                         if ((Boolean) val.getValue() == true) {
-                            return new BooleanValue(true);
+                            return BooleanValue.TRUE;
                         }
                     }
                 }
                 if (this.tok.toString().equals("and")) {
-                    return new BooleanValue(true);
+                    return BooleanValue.TRUE;
                 } else {
-                    return new BooleanValue(false);
+                    return BooleanValue.FALSE;
                 }
             }
         } else {
@@ -225,16 +365,16 @@ public class Expression {
                         "RUNTIME ERROR: Incorrect arity in comparison expression.");
             }
             for (int i = 0; i < this.exprs.size() - 1; i++) {
-                DataValue val1 = this.exprs.get(i).evaluate();
-                DataValue val2 = this.exprs.get(i + 1).evaluate();
+                DataValue val1 = this.exprs.get(i).evaluate(context);
+                DataValue val2 = this.exprs.get(i + 1).evaluate(context);
                 if (val1.getType() != val2.getType()) {
                     throw new Exception(
                             "RUNTIME ERROR: Type mismatch in comparison.");
                 }
                 if ((this.tok.toString().equals("==") &&
-                        val1.compareTo(val2) != 0) ||
+                        !val1.equals(val2)) ||
                         (this.tok.toString().equals("!=") &&
-                                val1.compareTo(val2) == 0)
+                                val1.equals(val2))
                         ||
                         (this.tok.toString().equals("<") &&
                                 val1.compareTo(val2) >= 0)
@@ -247,14 +387,14 @@ public class Expression {
                         ||
                         (this.tok.toString().equals(">=") &&
                                 val1.compareTo(val2) < 0)) {
-                    return new BooleanValue(false);
+                    return BooleanValue.FALSE;
                 }
             }
-            return new BooleanValue(true);
+            return BooleanValue.TRUE;
         }
     }
 
-    private DataValue evaluateSequenceFunction() throws Exception {
+    private DataValue evaluateSequenceFunction(InterpreterContext context) throws Exception {
         if (this.exprs.size() == 0) {
             throw new Exception(
                     "RUNTIME ERROR: Incorrect arity in sequence expression.");
@@ -265,32 +405,39 @@ public class Expression {
                 throw new Exception(
                         "RUNTIME ERROR: Incorrect arity in str expression.");
             }
-            DataValue val = this.exprs.get(0).evaluate();
-            return new StringValue(val.toString());
+            DataValue val = this.exprs.get(0).evaluate(context);
+            return StringValue.valueOf(val.toString());
+        }
+
+        if (isHigherOrderFunction()) {
+            return evaluateHigherOrderFunction(context);
+        }
+
+        if (this.tok.toString().equals("range")) {
+            return evaluateRange(context);
         }
 
-        DataValue first = this.exprs.get(0).evaluate();
+        DataValue first = this.exprs.get(0).evaluate(context);
         if (first.getType() != DataValue.Type.LIST &&
                 first.getType() != DataValue.Type.STRING) {
             throw new Exception(
                     "RUNTIME ERROR: List or String value expected.");
         }
 
-        ArrayList<DataValue> list = new ArrayList<DataValue>();
-        list.addAll((ArrayList<DataValue>) first.getValue());
+        List<DataValue> elements = (List<DataValue>) first.getValue();
 
         if (this.tok.toString().equals("len")) {
             if (this.exprs.size() != 1) {
                 throw new Exception(
                         "RUNTIME ERROR: Incorrect arity in len expression.");
             }
-            return new NumberValue(list.size());
+            return NumberValue.valueOf(elements.size());
         } else if (this.tok.toString().equals("get")) {
             if (this.exprs.size() != 2) {
                 throw new Exception(
                         "RUNTIME ERROR: Incorrect arity in get expression.");
             }
-            DataValue second = this.exprs.get(1).evaluate();
+            DataValue second = this.exprs.get(1).evaluate(context);
             if (second.getType() != DataValue.Type.NUMBER) {
                 throw new Exception(
                         "RUNTIME ERROR: Number expected in get expression.");
@@ -301,19 +448,23 @@ public class Expression {
                         "RUNTIME ERROR: List index must be an integer.");
             }
             int index = (int) dub;
-            if (index < 0 || index >= list.size()) {
+            // bounds are checked by the list itself so that a lazy sequence
+            // only has to produce the elements up to index
+            try {
+                return elements.get(index);
+            } catch (IndexOutOfBoundsException e) {
                 throw new Exception(
                         "RUNTIME ERROR: List index out of bounds.");
             }
-            return list.get(index);
         } else if (this.tok.toString().equals("cat")) {
             if (this.exprs.size() < 2) {
                 throw new Exception(
                         "RUNTIME ERROR: Incorrect arity in cat expression.");
             }
             boolean isString = (first.getType() == DataValue.Type.STRING);
+            ArrayList<DataValue> list = new ArrayList<DataValue>(elements);
             for (int i = 1; i < this.exprs.size(); i++) {
-                DataValue val = this.exprs.get(i).evaluate();
+                DataValue val = this.exprs.get(i).evaluate(context);
                 if (val.getType() != DataValue.Type.LIST &&
                         val.getType() != DataValue.Type.STRING) {
                     throw new Exception(
@@ -323,21 +474,118 @@ public class Expression {
                     throw new Exception(
                             "RUNTIME ERROR: Type mismatch in cat expression.");
                 }
-                list.addAll((ArrayList<DataValue>) val.getValue());
+                list.addAll((List<DataValue>) val.getValue());
             }
             if (isString) {
                 String concatenatedString = convertListToString(list);
-                return new StringValue(concatenatedString);
+                return StringValue.valueOf(concatenatedString);
             } else {
-                return new ListValue(list);
+                return ListValue.valueOf(list);
             }
         }
         throw new Exception("RUNTIME ERROR: Unknown expression format.");
     }
 
-    private DataValue evaluateUserFunction() throws Exception {
+    /**
+     * Evaluates (range end), (range start end) or (range start end step),
+     * producing a lazy list of the numbers from start (default 0) up to, but
+     * not including, end. The elements are never stored.
+     *
+     * @return RangeValue over the requested numbers
+     * @throws Exception if arity or types are invalid or the range is too large
+     */
+    private DataValue evaluateRange(InterpreterContext context) throws Exception {
+        if (this.exprs.size() > 3) {
+            throw new Exception(
+                    "RUNTIME ERROR: Incorrect arity in range expression.");
+        }
+        double[] bounds = { 0, 0, 1 };
+        int offset = (this.exprs.size() == 1) ? 1 : 0;
+        for (int i = 0; i < this.exprs.size(); i++) {
+            DataValue val = this.exprs.get(i).evaluate(context);
+            if (val.getType() != DataValue.Type.NUMBER) {
+                throw new Exception(
+                        "RUNTIME ERROR: Number value expected.");
+            }
+            bounds[i + offset] = (Double) val.getValue();
+        }
+        if (bounds[2] == 0) {
+            throw new Exception(
+                    "RUNTIME ERROR: range step cannot be zero.");
+        }
+        return new RangeValue(bounds[0], bounds[1], bounds[2]);
+    }
+
+    /**
+     * Evaluates the task functions, which run user functions concurrently and
+     * pass values between them: (spawn f args...) starts f on its own thread
+     * and memory space and returns a task, (await t) waits for and returns its
+     * result, (chan n) creates a channel buffering up to n values, and
+     * (send ch v) and (recv ch) put a value on and take a value off a channel,
+     * blocking while it is full or empty.
+     *
+     * @return the task, channel or value produced
+     * @throws Exception if arity or types are invalid or an awaited task failed
+     */
+    private DataValue evaluateTaskFunction(InterpreterContext context) throws Exception {
+        if (this.tok.toString().equals("spawn")) {
+            if (this.exprs.size() < 1 || this.exprs.get(0).exprs != null ||
+                    this.exprs.get(0).tok.getType() != Token.Type.IDENTIFIER) {
+                throw new Exception(
+                        "RUNTIME ERROR: Function name expected in spawn expression.");
+            }
+            Token name = this.exprs.get(0).tok;
+            FunctionDecl function = context.getMemory().lookupFunction(name.toString());
+            if (function == null) {
+                throw new Exception("RUNTIME ERROR: Function '" + name + "' is not declared");
+            }
+            if (function.getParameters().size() != this.exprs.size() - 1) {
+                throw new Exception("RUNTIME ERROR: Function '" + name + "' expects " +
+                        function.getParameters().size() + " parameters, got " + (this.exprs.size() - 1));
+            }
+            ArrayList<DataValue> args = new ArrayList<DataValue>();
+            for (int i = 1; i < this.exprs.size(); i++) {
+                args.add(this.exprs.get(i).evaluate(context));
+            }
+            return TaskValue.spawn(context, function, args);
+        }
+
+        int arity = this.tok.toString().equals("send") ? 2 : 1;
+        if (this.exprs.size() != arity) {
+            throw new Exception(
+                    "RUNTIME ERROR: Incorrect arity in " + this.tok + " expression.");
+        }
+        DataValue first = this.exprs.get(0).evaluate(context);
+
+        if (this.tok.toString().equals("await")) {
+            if (first.getType() != DataValue.Type.TASK) {
+                throw new Exception("RUNTIME ERROR: Task value expected.");
+            }
+            return ((TaskValue) first).await();
+        } else if (this.tok.toString().equals("chan")) {
+            if (first.getType() != DataValue.Type.NUMBER ||
+                    (Double) first.getValue() < 0 ||
+                    (Double) first.getValue() % 1 != 0) {
+                throw new Exception(
+                        "RUNTIME ERROR: Channel capacity must be a non-negative integer.");
+            }
+            return new ChannelValue(((Double) first.getValue()).intValue());
+        }
+
+        if (first.getType() != DataValue.Type.CHANNEL) {
+            throw new Exception("RUNTIME ERROR: Channel value expected.");
+        }
+        if (this.tok.toString().equals("send")) {
+            DataValue val = this.exprs.get(1).evaluate(context);
+            ((ChannelValue) first).send(val);
+            return val;
+        }
+        return ((ChannelValue) first).receive();
+    }
+
+    private DataValue evaluateUserFunction(InterpreterContext context) throws Exception {
         // check that ensures the idenitifier is a function and not a variable
-        FunctionDecl function = Interpreter.getFunction(this.tok.toString());
+        FunctionDecl function = context.getMemory().lookupFunction(this.tok.toString());
 
         // this block performs checks to ensure that the function is declared, is a
         // function, and has the correct number of parameters
@@ -352,46 +600,183 @@ public class Expression {
                     parameters.size() + " parameters, got " + this.exprs.size());
         }
 
-        ArrayList<DataValue> evaluatedArgs = new ArrayList<>();
-        DataValue returnValue = new BooleanValue(true);
+        ArrayList<DataValue> evaluatedArgs = context.getMemory().borrowArguments();
+        try {
+            // code block that iterates over the arguments and evaluates them
+            for (int i = 0; i < this.exprs.size(); i++) {
+                DataValue argValue = this.exprs.get(i).evaluate(context);
+                evaluatedArgs.add(argValue);
+            }
 
-        // code block that iterates over the arguments and evaluates them
-        for (int i = 0; i < this.exprs.size(); i++) {
-            DataValue argValue = this.exprs.get(i).evaluate();
-            evaluatedArgs.add(argValue);
+            return function.call(context, evaluatedArgs);
+        } finally {
+            context.getMemory().releaseArguments(evaluatedArgs);
         }
+    }
 
-        Interpreter.MEMORY.beginFunctionScope();
+    /**
+     * Evaluates map, filter and reduce, which apply the user function named by
+     * their first argument to each element of a list or string:
+     * (map f seq), (filter f seq) and (reduce f init seq). map and filter
+     * run on the fork-join pool when the sequence is large and f is pure;
+     * reduce is always a sequential left fold.
+     *
+     * @return the mapped list, the filtered sequence or the reduced value
+     * @throws Exception if arity or types are invalid or f fails
+     */
+    @SuppressWarnings("unchecked")
+    private DataValue evaluateHigherOrderFunction(InterpreterContext context) throws Exception {
+        boolean isReduce = this.tok.toString().equals("reduce");
+        if (this.exprs.size() != (isReduce ? 3 : 2)) {
+            throw new Exception(
+                    "RUNTIME ERROR: Incorrect arity in " + this.tok + " expression.");
+        }
+        Expression fnExpr = this.exprs.get(0);
+        if (fnExpr.exprs != null || fnExpr.tok.getType() != Token.Type.IDENTIFIER) {
+            throw new Exception(
+                    "RUNTIME ERROR: Function name expected in " + this.tok + " expression.");
+        }
+        FunctionDecl function = context.getMemory().lookupFunction(fnExpr.tok.toString());
+        if (function == null) {
+            throw new Exception("RUNTIME ERROR: Function '" + fnExpr.tok + "' is not declared");
+        }
+        if (function.getParameters().size() != (isReduce ? 2 : 1)) {
+            throw new Exception("RUNTIME ERROR: Function '" + fnExpr.tok + "' expects " +
+                    function.getParameters().size() + " parameters, got " + (isReduce ? 2 : 1));
+        }
 
-        // code block that iterats over the parameters and stores the evaluated
-        // arguments
-        for (int i = 0; i < parameters.size(); i++) {
-            Interpreter.MEMORY.declareVariable(parameters.get(i));
-            Interpreter.MEMORY.storeValue(parameters.get(i), evaluatedArgs.get(i));
+        DataValue seq = this.exprs.get(this.exprs.size() - 1).evaluate(context);
+        if (seq.getType() != DataValue.Type.LIST &&
+                seq.getType() != DataValue.Type.STRING) {
+            throw new Exception(
+                    "RUNTIME ERROR: List or String value expected.");
+        }
+        List<DataValue> elements = (List<DataValue>) seq.getValue();
+
+        if (isReduce) {
+            DataValue acc = this.exprs.get(1).evaluate(context);
+            ArrayList<DataValue> args = new ArrayList<DataValue>(2);
+            args.add(null);
+            args.add(null);
+            for (DataValue element : elements) {
+                args.set(0, acc);
+                args.set(1, element);
+                acc = function.call(context, args);
+            }
+            return acc;
         }
 
-        // try-catch block that attempts to iterate over the statements in the compound
-        // block if it is unable to do so, it will close the scope and rethrow the error
-        // indicating that a return statement was reached. if no return statement is
-        // reached a general purpose exception is thrown
-        try {
-            function.getBody().execute();
-        } catch (Return.ReturnException re) {
-            returnValue = re.getReturnValue();
-        } catch (Exception e) {
-            Interpreter.MEMORY.endCurrentScope();
-            throw e;
+        DataValue[] results = new DataValue[elements.size()];
+        if (elements.size() >= PARALLEL_THRESHOLD &&
+                function.isBodyPure(context, new HashSet<FunctionDecl>())) {
+            ApplySlice all = new ApplySlice(context, function, elements, results, 0, elements.size(),
+                    Math.max(1, elements.size() / (4 * ForkJoinPool.getCommonPoolParallelism())));
+            ForkJoinPool.commonPool().invoke(all);
+            all.rethrow();
+        } else {
+            applyFunction(context, function, elements, results, 0, elements.size());
         }
 
-        Interpreter.MEMORY.endCurrentScope();
-        return returnValue;
+        if (this.tok.toString().equals("map")) {
+            return ListValue.valueOf(new ArrayList<DataValue>(Arrays.asList(results)));
+        }
+        ArrayList<DataValue> kept = new ArrayList<DataValue>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i].getType() != DataValue.Type.BOOLEAN) {
+                throw new Exception(
+                        "RUNTIME ERROR: Boolean value expected from filter function.");
+            }
+            if ((Boolean) results[i].getValue()) {
+                kept.add(elements.get(i));
+            }
+        }
+        return (seq.getType() == DataValue.Type.STRING)
+                ? StringValue.valueOf(convertListToString(kept))
+                : ListValue.valueOf(kept);
+    }
+
+    private static void applyFunction(InterpreterContext context, FunctionDecl function,
+            List<DataValue> elements, DataValue[] results, int low, int high) throws Exception {
+        ArrayList<DataValue> args = new ArrayList<DataValue>(1);
+        args.add(null);
+        for (int i = low; i < high; i++) {
+            args.set(0, elements.get(i));
+            results[i] = function.call(context, args);
+        }
+    }
+
+    private boolean isHigherOrderFunction() {
+        return this.tok.getType() == Token.Type.SEQ_FUNC &&
+               (this.tok.toString().equals("map") ||
+                this.tok.toString().equals("filter") ||
+                this.tok.toString().equals("reduce"));
+    }
+
+    static boolean isPureFunction(InterpreterContext context, Token name, Set<FunctionDecl> visiting) {
+        FunctionDecl function = context.getMemory().lookupFunction(name.toString());
+        return function != null && function.isBodyPure(context, visiting);
+    }
+
+    /**
+     * Fork-join task that applies a pure function to a range of elements,
+     * each leaf using its own worker memory. The failure at the lowest
+     * index (the one a sequential run would hit first) is kept and rethrown.
+     */
+    private static class ApplySlice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final InterpreterContext     context;
+        private final FunctionDecl           function;
+        private final List<DataValue>        elements;
+        private final DataValue[]            results;
+        private final int                    low, high, grain;
+        private Exception                    error;
+
+        ApplySlice(InterpreterContext context, FunctionDecl function, List<DataValue> elements,
+                   DataValue[] results, int low, int high, int grain) {
+            this.context = context;
+            this.function = function;
+            this.elements = elements;
+            this.results = results;
+            this.low = low;
+            this.high = high;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.high - this.low <= this.grain) {
+                InterpreterContext worker = new InterpreterContext(
+                        new MemorySpace(this.context.getMemory(), "parallel map or filter"),
+                        this.context.getOutput());
+                try {
+                    applyFunction(worker, this.function, this.elements, this.results, this.low, this.high);
+                } catch (Exception e) {
+                    this.error = e;
+                }
+            } else {
+                int mid = (this.low + this.high) >>> 1;
+                ApplySlice left = new ApplySlice(this.context, this.function, this.elements,
+                        this.results, this.low, mid, this.grain);
+                ApplySlice right = new ApplySlice(this.context, this.function, this.elements,
+                        this.results, mid, this.high, this.grain);
+                invokeAll(left, right);
+                this.error = (left.error != null) ? left.error : right.error;
+            }
+        }
+
+        void rethrow() throws Exception {
+            if (this.error != null) {
+                throw this.error;
+            }
+        }
     }
 
     // =========== Utility Methods ===========
-    private String convertListToString(ArrayList<DataValue> list) {
-        StringBuilder sb = new StringBuilder();
+    private String convertListToString(ArrayList<DataValue> list) throws Exception {
+        StringBuilder sb = new StringBuilder(list.size());
         for (DataValue val : list) {
-            sb.append(val.toString());
+            val.writeTo(sb);
         }
         return sb.toString();
     }
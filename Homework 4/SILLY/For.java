@@ -0,0 +1,156 @@
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Derived class that represents a for-each statement in the SILLY language:
+ *
+ *     for VAR in SEQUENCE { ... }
+ *
+ * The body runs once per element of a list, string, range or generator
+ * sequence, with VAR bound to the element. VAR lives in its own scope
+ * around the loop and is declared once; each pass simply overwrites it.
+ * Over a range, VAR is stored as an unboxed number. A generator sequence
+ * is streamed (see LazySeqValue.stream), and the generator is stopped
+ * when the loop ends.
+ * 
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class For extends Statement {
+
+    // =========================== Fields ===========================
+    private final Token         loopVar;
+    private final Expression    sequenceExpr;
+    private final Compound      loopBody;
+
+
+    // ======================= Constructor ========================
+    /**
+     * Creates a for statement by parsing the loop variable, sequence and body.
+     *
+     * @param input TokenStream to read from
+     * @throws Exception if for statement syntax is invalid
+     */
+    public For(TokenStream input) throws Exception {
+        if (!input.next().toString().equals("for")) {
+            throw new Exception("SYNTAX ERROR: Malformed for statement");
+        }
+        this.loopVar = input.next();
+        if (this.loopVar.getType() != Token.Type.IDENTIFIER) {
+            throw new Exception("SYNTAX ERROR: for loop variable must be an identifier");
+        }
+        if (!input.next().toString().equals("in")) {
+            throw new Exception("SYNTAX ERROR: Malformed for statement (expecting 'in')");
+        }
+        this.sequenceExpr = new Expression(input);
+        this.loopBody = new Compound(input);
+        this.resolveScopes(new HashSet<Token>());
+    }
+
+    /**
+     * Reads a for statement written by AstEncoder.
+     *
+     * @param in the decoder to read from
+     * @throws IOException if the data is not a valid for statement
+     */
+    public For(AstDecoder in) throws IOException {
+        this.loopVar = in.readToken();
+        this.sequenceExpr = new Expression(in);
+        this.loopBody = in.readCompound();
+        this.resolveScopes(new HashSet<Token>());
+    }
+
+
+    // ======================= Core Methods =======================
+    /**
+     * Executes the body once per element of the sequence.
+     *
+     * @throws Exception if the sequence is invalid or the body fails
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void execute(InterpreterContext context) throws Exception {
+        DataValue seq = this.sequenceExpr.evaluate(context);
+        if (seq.getType() != DataValue.Type.LIST &&
+                seq.getType() != DataValue.Type.STRING) {
+            throw new Exception("RUNTIME ERROR: for statement requires a list or string.");
+        }
+        List<DataValue> elements = (List<DataValue>) seq.getValue();
+
+        MemorySpace memory = context.getMemory();
+        memory.beginNestedScope();
+        try {
+            memory.declareVariable(this.loopVar);
+            if (seq instanceof RangeValue) {
+                RangeValue range = (RangeValue) seq;
+                for (int i = 0; i < range.getCount(); i++) {
+                    memory.storeLocalNumber(this.loopVar, range.getStart() + i * range.getStep());
+                    this.loopBody.execute(context);
+                }
+                return;
+            }
+            if (seq instanceof LazySeqValue) {
+                streamElements(context, ((LazySeqValue) seq).stream());
+                return;
+            }
+            for (DataValue element : elements) {
+                memory.storeLocalValue(this.loopVar, element);
+                this.loopBody.execute(context);
+            }
+        } finally {
+            memory.endCurrentScope();
+        }
+    }
+
+    @Override
+    public boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        return this.sequenceExpr.isPure(context, visiting)
+                && this.loopBody.isPure(context, visiting);
+    }
+
+    @Override
+    public boolean yields() {
+        return this.loopBody.yields();
+    }
+
+    @Override
+    void resolveScopes(Set<Token> declared) {
+        this.loopBody.resolveScopes(withLocals(declared, this.loopVar));
+    }
+
+    @Override
+    public void encode(AstEncoder out) throws IOException {
+        out.writeByte(AstEncoder.FOR);
+        out.writeToken(this.loopVar);
+        this.sequenceExpr.encode(out);
+        out.writeStatement(this.loopBody);
+    }
+
+    @Override
+    public String toString() {
+        return "for " + this.loopVar + " in " + this.sequenceExpr + " " + this.loopBody;
+    }
+
+
+    // ====================== Helper Methods ======================
+    /**
+     * Runs the body for each element of a single pass over a generator
+     * sequence, closing the pass however the loop ends.
+     *
+     * @param context the interpreter state to execute against
+     * @param pass    the pass over the sequence
+     * @throws Exception if the generator or the body fails
+     */
+    private void streamElements(InterpreterContext context, LazySeqValue.Pass pass) throws Exception {
+        try {
+            while (pass.hasNext()) {
+                context.getMemory().storeLocalValue(this.loopVar, pass.next());
+                this.loopBody.execute(context);
+            }
+        } finally {
+            pass.close();
+        }
+    }
+}
@@ -1,4 +1,7 @@
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Derived class that represents a function declaration in the SILLY language.
@@ -12,6 +15,7 @@ public class FunctionDecl extends Statement {
     private final Token              functionIdentifier;
     private final ArrayList<Token>   formalParams;
     private final Compound           functionImplementation;
+    private final boolean            generator;     // body contains a yield
 
 
     // ========================== Public Interface ==========================
@@ -28,9 +32,35 @@ public class FunctionDecl extends Statement {
      * @throws Exception if function cannot be declared
      */
     @Override
-    public void execute() throws Exception {
-        validateDeclaration();
-        registerFunction();
+    public void execute(InterpreterContext context) throws Exception {
+        validateDeclaration(context);
+        registerFunction(context);
+    }
+
+    @Override
+    public boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        return false;   // declaring a function changes the function table
+    }
+
+    @Override
+    void resolveScopes(Set<Token> declared) {
+        this.functionImplementation.resolveScopes(new HashSet<Token>(this.formalParams));  // a new frame
+    }
+
+    @Override
+    public Token boundVariable() {
+        return this.functionIdentifier;
+    }
+
+    @Override
+    public void encode(AstEncoder out) throws IOException {
+        out.writeByte(AstEncoder.FUNC);
+        out.writeToken(this.functionIdentifier);
+        out.writeInt(this.formalParams.size());
+        for (Token param : this.formalParams) {
+            out.writeToken(param);
+        }
+        out.writeStatement(this.functionImplementation);
     }
 
     @Override
@@ -48,21 +78,102 @@ public class FunctionDecl extends Statement {
     }
 
 
+    /**
+     * Calls the function: binds the arguments to the parameters in a new
+     * function scope, executes the body and returns the value of the return
+     * statement reached (true if there was none). Calling a generator
+     * function does not run the body yet; it returns the lazy sequence of
+     * the values the body yields. Calls are timed when profiling (see
+     * Profiler).
+     *
+     * @param context the context the call is made in
+     * @param args    the evaluated arguments, one per parameter
+     * @return the value returned by the function
+     * @throws Exception if the body fails
+     */
+    public DataValue call(InterpreterContext context, ArrayList<DataValue> args) throws Exception {
+        if (this.generator) {
+            // the generator runs later, so it keeps its own copy of the arguments
+            return new LazySeqValue(new Generator(context, this, new ArrayList<DataValue>(args)));
+        }
+        Profiler profiler = Profiler.active();
+        if (profiler == null) {
+            return invoke(context, args);
+        }
+        profiler.enterCall(this);
+        try {
+            return invoke(context, args);
+        } finally {
+            profiler.exit();
+        }
+    }
+
+    /**
+     * Runs the body of the function in the given context, without the
+     * generator handling of call.
+     *
+     * @param context the context to run the body in
+     * @param args    the evaluated arguments, one per parameter
+     * @return the value returned by the function
+     * @throws Exception if the body fails
+     */
+    DataValue invoke(InterpreterContext context, ArrayList<DataValue> args) throws Exception {
+        DataValue returnValue = BooleanValue.TRUE;
+        context.getMemory().beginFunctionScope();
+
+        // code block that iterats over the parameters and stores the evaluated
+        // arguments
+        for (int i = 0; i < this.formalParams.size(); i++) {
+            context.getMemory().declareVariable(this.formalParams.get(i));
+            context.getMemory().storeLocalValue(this.formalParams.get(i), args.get(i));
+        }
+
+        // try-catch block that attempts to iterate over the statements in the compound
+        // block if it is unable to do so, it will close the scope and rethrow the error
+        // indicating that a return statement was reached. if no return statement is
+        // reached a general purpose exception is thrown
+        try {
+            this.functionImplementation.executeInCurrentScope(context);   // body shares the call's scope
+        } catch (Return.ReturnException re) {
+            returnValue = re.getReturnValue();
+        } catch (Exception e) {
+            context.getMemory().endCurrentScope();
+            throw e;
+        }
+
+        context.getMemory().endCurrentScope();
+        return returnValue;
+    }
+
+    /**
+     * Determines whether calls to this function can only affect the
+     * function's own variables, so that calls may run in parallel. Every
+     * name it assigns, parameter or temporary, is local to the call.
+     *
+     * @param context  the interpreter state used to resolve called functions
+     * @param visiting functions already being checked (assumed pure)
+     * @return true if the function is pure
+     */
+    public boolean isBodyPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        return !visiting.add(this)
+                || this.functionImplementation.isPure(context, visiting);
+    }
+
+
     // ========================== Helper Methods ===========================
-    private void validateDeclaration() throws Exception {
-        if (Interpreter.MEMORY.isDeclared(this.functionIdentifier)) {
+    private void validateDeclaration(InterpreterContext context) throws Exception {
+        if (context.getMemory().isDeclared(this.functionIdentifier)) {
             throw new Exception("RUNTIME ERROR: Cannot declare function - name exists as variable");
         }
-        if (Interpreter.MEMORY.isFunctionDeclared(this.functionIdentifier.toString())) {
+        if (context.getMemory().isFunctionDeclared(this.functionIdentifier.toString())) {
             throw new Exception("RUNTIME ERROR: Function already declared");
         }
     }
 
-    private void registerFunction() {
-        Interpreter.registerFunction(this.functionIdentifier.toString(), this);
-        Interpreter.MEMORY.storeFunction(this.functionIdentifier.toString(), this);
-        Interpreter.MEMORY.declareVariable(this.functionIdentifier);
-        Interpreter.MEMORY.storeValue(this.functionIdentifier, new BooleanValue(true));
+    private void registerFunction(InterpreterContext context) throws Exception {
+        context.getMemory().storeFunction(this.functionIdentifier.toString(), this);
+        context.getMemory().declareVariable(this.functionIdentifier);
+        context.getMemory().storeValue(this.functionIdentifier, BooleanValue.TRUE);
     }
 
     /**
@@ -99,5 +210,25 @@ public class FunctionDecl extends Statement {
 
         input.next();
         this.functionImplementation = new Compound(input);
+        this.generator = this.functionImplementation.yields();
+        this.resolveScopes(new HashSet<Token>());
+    }
+
+    /**
+     * Reads a function declaration written by AstEncoder.
+     *
+     * @param in the decoder to read from
+     * @throws IOException if the data is not a valid function declaration
+     */
+    public FunctionDecl(AstDecoder in) throws IOException {
+        this.functionIdentifier = in.readToken();
+        int count = in.readInt();
+        this.formalParams = new ArrayList<Token>(count);
+        for (int i = 0; i < count; i++) {
+            this.formalParams.add(in.readToken());
+        }
+        this.functionImplementation = in.readCompound();
+        this.generator = this.functionImplementation.yields();
+        this.resolveScopes(new HashSet<Token>());
     }
 }
\ No newline at end of file
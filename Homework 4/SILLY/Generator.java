@@ -0,0 +1,122 @@
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+
+/**
+ * Class that runs the body of a generator function and hands its yielded
+ * values, one at a time, to the sequence reading them. The body runs on
+ * its own thread against a memory space forked from the caller, and only
+ * advances to the next yield when the reader asks for another element.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class Generator {
+
+    // ================================ Fields ================================
+    private static final Object END = new Object();
+
+    private final SynchronousQueue<Object> handoff = new SynchronousQueue<Object>();
+    private final Semaphore                demand = new Semaphore(0);
+    private final FunctionDecl             function;
+    private final ArrayList<DataValue>     args;
+    private final InterpreterContext       producer;
+    private Future<?>                      running;     // null until first request
+    private boolean                        finished;
+
+
+    // ============================= Constructors ============================
+    /**
+     * Prepares (but does not start) a call of a generator function.
+     *
+     * @param context  the context the call is made in
+     * @param function the generator function
+     * @param args     the evaluated arguments
+     */
+    public Generator(InterpreterContext context, FunctionDecl function, ArrayList<DataValue> args) {
+        this.function = function;
+        this.args = args;
+        this.producer = new InterpreterContext(
+                new MemorySpace(context.getMemory(), "a generator"), context.getOutput(), this);
+    }
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Produces the next yielded value, running the body up to its next yield.
+     * An Error that ended the body (e.g., a StackOverflowError) is rethrown
+     * here, on the reader's thread, as it would be by an ordinary call.
+     *
+     * @return the value yielded, or null once the body has finished
+     * @throws Exception the error that ended the body, if it failed
+     */
+    public synchronized DataValue next() throws Exception {
+        if (this.finished) {
+            return null;
+        }
+        if (this.running == null) {
+            this.running = TaskValue.TASKS.submit(this::produce);
+        } else {
+            this.demand.release();
+        }
+
+        Object item = this.handoff.take();
+        if (item == END) {
+            this.finished = true;
+            return null;
+        }
+        if (item instanceof Exception) {
+            this.finished = true;
+            throw (Exception) item;
+        }
+        if (item instanceof Error) {
+            this.finished = true;
+            throw (Error) item;
+        }
+        return (DataValue) item;
+    }
+
+    /**
+     * Called by the body for each yield: hands the value over and waits
+     * until the reader asks for another one.
+     *
+     * @param value the yielded value
+     * @throws InterruptedException if the generator was cancelled
+     */
+    public void yield(DataValue value) throws InterruptedException {
+        this.handoff.put(value);
+        this.demand.acquire();
+    }
+
+    /**
+     * Stops a body that is waiting at a yield, e.g. once its sequence is
+     * no longer reachable.
+     */
+    public synchronized void cancel() {
+        if (this.running != null && !this.finished) {
+            this.running.cancel(true);
+        }
+        this.finished = true;
+    }
+
+
+    // ============================ Private Helpers ==========================
+    /**
+     * Runs the body on the generator's thread, then hands over END or
+     * whatever ended it. Every Throwable is handed over, so the reader is
+     * never left waiting for an item that will not come.
+     */
+    private Void produce() throws InterruptedException {
+        Object last = END;
+        try {
+            this.function.invoke(this.producer, this.args);
+        } catch (InterruptedException e) {
+            return null;                            // cancelled: no reader left
+        } catch (Throwable e) {
+            last = e;
+        }
+        this.handoff.put(last);
+        return null;
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Class that represents the storage of one top-level (global) variable.
+ * A memory space creates one cell per global name and never replaces it,
+ * so a name can be resolved to its cell once and then read and written
+ * directly, from any depth. Redefining the variable (e.g., at the REPL)
+ * updates the same cell. A number assigned by arithmetic is kept unboxed
+ * and only wrapped in a NumberValue when read as a value.
+ *
+ * Spawned tasks and generators read globals while the program assigns
+ * them, so the contents of a cell are one immutable State, replaced as a
+ * whole and published through a volatile field: a reader never sees half
+ * of a write. Only the memory space owning the globals writes them.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class GlobalCell {
+
+    // ================================ Fields ================================
+    private static final State UNDECLARED = new State(null, 0, false, false);
+
+    private final Token     name;
+    private volatile State  state = UNDECLARED;   // cells for unknown names exist, undeclared
+
+    /**
+     * The contents of a cell at one moment.
+     */
+    private static final class State {
+        final DataValue value;          // null if unassigned or unboxed
+        final double    number;         // unboxed number, if numeric
+        final boolean   numeric;
+        final boolean   declared;
+
+        State(DataValue value, double number, boolean numeric, boolean declared) {
+            this.value = value;
+            this.number = number;
+            this.numeric = numeric;
+            this.declared = declared;
+        }
+    }
+
+
+    // ============================= Constructors ============================
+    GlobalCell(Token name) {
+        this.name = name;
+    }
+
+
+    // ========================== Public Interface ==========================
+    public Token getName()              { return this.name; }
+    public boolean isDeclared()         { return this.state.declared; }
+
+    /**
+     * Gets the value of the variable, boxing an unboxed number.
+     *
+     * @return the value stored, or null if none
+     */
+    public DataValue getValue() {
+        State current = this.state;
+        return current.numeric ? NumberValue.valueOf(current.number) : current.value;
+    }
+
+    /**
+     * Gets the number stored in the variable, without boxing it.
+     *
+     * @return the number stored
+     * @throws Exception if the variable does not hold a number
+     */
+    public double getNumber() throws Exception {
+        State current = this.state;
+        return current.numeric ? current.number : NumberValue.toNumber(current.value);
+    }
+
+
+    // =========================== Package Helpers ==========================
+    void declare() {
+        this.state = new State(null, 0, false, true);
+    }
+
+    void setValue(DataValue value) {
+        this.state = new State(value, 0, false, this.state.declared);
+    }
+
+    void setNumber(double number) {
+        this.state = new State(null, number, true, this.state.declared);
+    }
+}
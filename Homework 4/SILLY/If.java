@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.util.Set;
+
 /**
  * Derived class that represents an if statement in the SILLY language.
  * 
@@ -30,16 +33,28 @@ public class If extends Statement {
         this.elseBlock = new Compound(input);
     }
 
+    /**
+     * Reads a if statement written by AstEncoder.
+     *
+     * @param in the decoder to read from
+     * @throws IOException if the data is not a valid if statement
+     */
+    public If(AstDecoder in) throws IOException {
+        this.condition = new Expression(in);
+        this.thenBlock = in.readCompound();
+        this.elseBlock = in.readCompound();
+    }
+
     // ========================== Execution Flow ==========================
     @Override
-    public void execute() throws Exception {
-        DataValue result = evaluateCondition();
-        executeAppropriateBlock(result);
+    public void execute(InterpreterContext context) throws Exception {
+        DataValue result = evaluateCondition(context);
+        executeAppropriateBlock(context, result);
     }
 
     // ========================== Helper Methods =========================
-    private DataValue evaluateCondition() throws Exception {
-        DataValue result = this.condition.evaluate();
+    private DataValue evaluateCondition(InterpreterContext context) throws Exception {
+        DataValue result = this.condition.evaluate(context);
         validateBooleanType(result);
         return result;
     }
@@ -50,18 +65,44 @@ public class If extends Statement {
         }
     }
 
-    private void executeAppropriateBlock(DataValue result) throws Exception {
+    private void executeAppropriateBlock(InterpreterContext context, DataValue result) throws Exception {
         try {
             if ((Boolean)result.getValue()) {
-                this.thenBlock.execute();
+                this.thenBlock.execute(context);
             } else {
-                this.elseBlock.execute();
+                this.elseBlock.execute(context);
             }
         } catch (Return.ReturnException re) {
             throw re;
         }
     }
 
+    @Override
+    public boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        return this.condition.isPure(context, visiting)
+                && this.thenBlock.isPure(context, visiting)
+                && this.elseBlock.isPure(context, visiting);
+    }
+
+    @Override
+    public boolean yields() {
+        return this.thenBlock.yields() || this.elseBlock.yields();
+    }
+
+    @Override
+    void resolveScopes(Set<Token> declared) {
+        this.thenBlock.resolveScopes(declared);
+        this.elseBlock.resolveScopes(declared);
+    }
+
+    @Override
+    public void encode(AstEncoder out) throws IOException {
+        out.writeByte(AstEncoder.IF);
+        this.condition.encode(out);
+        out.writeStatement(this.thenBlock);
+        out.writeStatement(this.elseBlock);
+    }
+
     /**
      * Converts the current if statement into a String.
      * 
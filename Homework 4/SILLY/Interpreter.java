@@ -1,5 +1,12 @@
-import java.util.HashMap;
-import java.util.Map;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -10,45 +17,63 @@ import java.util.Scanner;
  */
 public class Interpreter {
 
-    // ========================== Static State ===========================
-    public static final MemorySpace                      MEMORY = new MemorySpace();
-    private static final Map<String, FunctionDecl>       functions = new HashMap<>();
-
-
-    // ======================= Function Management ======================
-    /**
-     * Registers a function declaration in the interpreter.
-     * 
-     * @param name     The name of the function
-     * @param function The function declaration
-     */
-    public static void registerFunction(String name, FunctionDecl function) {
-        functions.put(name, function);
-    }
-
-    /**
-     * Gets a function declaration by name.
-     * 
-     * @param name The name of the function
-     * @return The function declaration, or null if not found
-     */
-    public static FunctionDecl getFunction(String name) {
-        return functions.get(name);
-    }
-
+    // ======================== Program Entry ==========================
     /**
-     * Checks if a function exists with the given name.
+     * Runs the interpreter. With a file name argument, the program is run in
+     * batch mode; otherwise the user is prompted for a file name or
+     * interactive input, and each statement is echoed as it is executed.
+     * With "--serve PORT" (or "--serve unix:PATH"), programs are instead
+     * accepted over a local socket and run concurrently (see SillyServer).
+     * In place of a statement, ":save FILE" saves the functions and globals
+     * defined so far to a snapshot file and ":load FILE" restores them.
+     * A program run in batch mode is cached as a parsed AST in a .sillyc file
+     * (see AstCache), so later runs of the unchanged program skip parsing;
+     * "--no-cache" runs it without reading or writing the cache.
+     * "--profile FILE" runs a program in batch mode under the Profiler,
+     * printing its report to standard error and writing collapsed stacks
+     * for flame graphs next to the program. Any other arguments are a
+     * usage error.
      * 
-     * @param name The name to check
-     * @return true if a function with the given name exists, false otherwise
+     * @param args optional name of the program file to run in batch mode
      */
-    public static boolean functionExists(String name) {
-        return functions.containsKey(name);
-    }
+    public static void main(String[] args) throws Exception {
+        String mode = null;             // "--serve", "--profile" or "" for batch; null if interactive
+        String target = null;
+        boolean useCache = true;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--no-cache")) {
+                useCache = false;
+            } else if (mode != null) {
+                usageError("unexpected argument " + args[i]);
+            } else if (args[i].equals("--serve") || args[i].equals("--profile")) {
+                if (i + 1 == args.length) {
+                    usageError(args[i] + " needs an argument");
+                }
+                mode = args[i];
+                target = args[++i];
+            } else if (args[i].startsWith("--")) {
+                usageError("unknown option " + args[i]);
+            } else {
+                mode = "";
+                target = args[i];
+            }
+        }
 
+        if ("--serve".equals(mode)) {
+            new SillyServer(target).serve();
+            return;
+        }
+        if ("--profile".equals(mode)) {
+            runProfiled(target, useCache);
+            return;
+        }
+        if (mode != null) {
+            runBatch(target, useCache);
+            return;
+        }
 
-    // ======================== Program Entry ==========================
-    public static void main(String[] args) throws Exception {
+        OutputSink output = new OutputSink(System.out, OutputSink.FlushPolicy.LINE);
+        InterpreterContext context = new InterpreterContext(output);
 
         System.out.print(
                 "Enter the program file name or hit RETURN for interactive: ");
@@ -58,33 +83,194 @@ public class Interpreter {
         TokenStream inStream = new TokenStream();
         if (!response.equals("")) {
             inStream = new TokenStream(response);
-        } else {
+            output.setPolicy(OutputSink.FlushPolicy.BUFFER);
         }
 
-        while (response.equals("") || inStream.hasNext()) {
-            System.out.print(">>> ");
-            Statement stmt = Statement.getStatement(inStream);
-            if (!response.equals("")) {
-                System.out.println(stmt);
+        try {
+            while (response.equals("") || inStream.hasNext()) {
+                output.print(">>> ");
+                if (response.equals("")) {
+                    output.flush();     // prompt must be visible before blocking on input
+                }
+                if (isCommand(inStream)) {
+                    executeCommand(context, inStream, !response.equals(""));
+                    continue;
+                }
+                Statement stmt = Statement.getStatement(inStream);
+                if (!response.equals("")) {
+                    output.println(stmt.toString());
+                }
+                executeTopLevel(context, stmt);
             }
+        } finally {
+            output.flush();
+        }
 
-            // as with other try-catch blocks dealing with return values, if a return
-            // statement is reached, the current scope is closed and the return exception is
-            // rethrown. see compond.java if this is unclear
-            try {
-                stmt.execute();
-            } catch (Return.ReturnException re) {
-                System.out.println("ERROR: Return statement outside of function");
-            } catch (Exception e) {
-                System.out.println(e);
+        input.close();
+    }
+
+    /**
+     * Runs a program file without prompts or statement echo. Each statement
+     * is executed as soon as it has been parsed.
+     * 
+     * @param filename the program file to run
+     */
+    public static void runBatch(String filename) throws Exception {
+        runBatch(filename, true);
+    }
+
+    /**
+     * Runs a program file without prompts or statement echo, using the AST
+     * cache only if useCache is true.
+     * 
+     * @param filename the program file to run
+     * @param useCache true to load and store the program's .sillyc cache
+     */
+    public static void runBatch(String filename, boolean useCache) throws Exception {
+        OutputSink output = new OutputSink(System.out, OutputSink.FlushPolicy.BUFFER);
+        InterpreterContext context = new InterpreterContext(output);
+        try {
+            Path source = Paths.get(filename);
+            byte[] text = Files.readAllBytes(source);
+            List<Statement> cached = useCache ? AstCache.load(source, text) : null;
+            if (cached != null) {
+                for (Statement stmt : cached) {
+                    executeTopLevel(context, stmt);
+                }
+                return;
             }
+
+            // statements still run as they are parsed; the cache is written only
+            // once the whole file has parsed and holds no commands
+            TokenStream inStream = new TokenStream(
+                    new InputStreamReader(new ByteArrayInputStream(text), Charset.defaultCharset()));
+            ArrayList<Statement> parsed = new ArrayList<Statement>();
+            boolean cacheable = useCache;
+            while (inStream.hasNext()) {
+                if (isCommand(inStream)) {
+                    executeCommand(context, inStream, false);
+                    cacheable = false;
+                } else {
+                    Statement stmt = Statement.getStatement(inStream);
+                    parsed.add(stmt);
+                    executeTopLevel(context, stmt);
+                }
+            }
+            if (cacheable) {
+                AstCache.store(source, text, parsed);
+            }
+        } catch (Exception e) {
+            output.println(e.toString());
+            output.flush();
+            System.exit(1);
+        } finally {
+            output.flush();
         }
+    }
 
-        input.close();
+
+    /**
+     * Runs a program in batch mode under the profiler. The report is made
+     * when the JVM exits, so it also covers a program stopped by an error.
+     * 
+     * @param filename the name of the program file
+     * @param useCache true to use the program's .sillyc cache
+     */
+    public static void runProfiled(String filename, boolean useCache) throws Exception {
+        Profiler profiler = Profiler.start();
+        Path source = Paths.get(filename);
+        String name = source.getFileName().toString();
+        Path stacks = source.resolveSibling(
+                ((name.lastIndexOf('.') > 0) ? name.substring(0, name.lastIndexOf('.')) : name) + ".collapsed");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            profiler.stop();
+            profiler.report(System.err, filename);
+            try {
+                profiler.writeCollapsed(stacks);
+                System.err.println("Collapsed stacks written to " + stacks);
+            } catch (IOException e) {
+                System.err.println("Cannot write collapsed stacks to " + stacks + " (" + e + ")");
+            }
+        }));
+        runBatch(filename, useCache);
     }
 
 
     // ======================= Helper Methods =========================
+    /**
+     * Executes a top-level statement, reporting (rather than propagating)
+     * any runtime error so that later statements still run.
+     * 
+     * @param context the context to execute the statement in
+     * @param stmt    the statement to execute
+     */
+    private static void executeTopLevel(InterpreterContext context, Statement stmt) throws Exception {
+        // as with other try-catch blocks dealing with return values, if a return
+        // statement is reached, the current scope is closed and the return exception is
+        // rethrown. see compond.java if this is unclear
+        Profiler profiler = Profiler.active();
+        if (profiler != null) {
+            profiler.enter(stmt);
+        }
+        try {
+            stmt.execute(context);
+        } catch (Return.ReturnException re) {
+            context.getOutput().println("ERROR: Return statement outside of function");
+            context.getOutput().flush();
+        } catch (Exception e) {
+            context.getOutput().println(e.toString());
+            context.getOutput().flush();
+        } finally {
+            if (profiler != null) {
+                profiler.exit();
+            }
+        }
+    }
+
+    /**
+     * Reports a bad command line, with the accepted forms, and exits.
+     * 
+     * @param problem what is wrong with the arguments
+     */
+    private static void usageError(String problem) {
+        System.err.println("Interpreter: " + problem);
+        System.err.println("usage: java Interpreter [--no-cache] [FILE | --profile FILE | --serve PORT | --serve unix:PATH]");
+        System.exit(2);
+    }
+
+    private static boolean isCommand(TokenStream input) {
+        return input.lookAhead().toString().startsWith(":");
+    }
+
+    /**
+     * Reads and runs an interpreter command (":save FILE" or ":load FILE"),
+     * reporting any error like a runtime error.
+     * 
+     * @param context the context whose state is saved or restored
+     * @param input   the stream the command is read from
+     * @param echo    true if the command should be echoed
+     */
+    private static void executeCommand(InterpreterContext context, TokenStream input, boolean echo)
+            throws Exception {
+        String command = input.next().toString();
+        String file = input.next().toString();
+        if (echo) {
+            context.getOutput().println(command + " " + file);
+        }
+        try {
+            if (command.equals(":save")) {
+                Snapshot.save(context, Paths.get(file));
+            } else if (command.equals(":load")) {
+                Snapshot.load(context, Paths.get(file));
+            } else {
+                throw new Exception("SYNTAX ERROR: Unknown command (" + command + ")");
+            }
+        } catch (Exception e) {
+            context.getOutput().println(e.toString());
+            context.getOutput().flush();
+        }
+    }
+
     private static void handleReturnException() {
         // ...existing code...
     }
@@ -0,0 +1,57 @@
+/**
+ * Class that holds all of the state of one running SILLY program: its memory
+ * space (variables and functions) and its output sink. Every statement and
+ * expression is executed against a context, so independent programs can run
+ * side by side, each on its own thread, within one JVM.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class InterpreterContext {
+
+    // ================================ Fields ================================
+    private final MemorySpace   memory;
+    private final OutputSink    output;
+    private final Generator     generator;      // target of yield, or null outside generators
+
+
+    // ============================= Constructors ============================
+    /**
+     * Constructs a context with an empty memory space.
+     *
+     * @param output the sink that receives the program's output
+     */
+    public InterpreterContext(OutputSink output) {
+        this(new MemorySpace(), output);
+    }
+
+    /**
+     * Constructs a context over an existing memory space (e.g., a worker
+     * memory forked from another context).
+     *
+     * @param memory the memory space to execute against
+     * @param output the sink that receives the program's output
+     */
+    public InterpreterContext(MemorySpace memory, OutputSink output) {
+        this(memory, output, null);
+    }
+
+    /**
+     * Constructs a context for running the body of a generator function.
+     *
+     * @param memory    the memory space to execute against
+     * @param output    the sink that receives the program's output
+     * @param generator the generator that receives yielded values
+     */
+    public InterpreterContext(MemorySpace memory, OutputSink output, Generator generator) {
+        this.memory = memory;
+        this.output = output;
+        this.generator = generator;
+    }
+
+
+    // ============================= Access Methods ==========================
+    public MemorySpace getMemory()      { return this.memory; }
+    public OutputSink getOutput()       { return this.output; }
+    public Generator getGenerator()     { return this.generator; }
+}
@@ -0,0 +1,246 @@
+import java.lang.ref.Cleaner;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Class that represents the lazy sequence returned by a generator function.
+ * It behaves as a list, but elements are only produced when they are first
+ * accessed and the generator body runs at most once.
+ *
+ * A for loop takes the elements in a single pass (see stream) that keeps
+ * none of them, so the loop runs in constant memory even over an endless
+ * generator, and stops the generator as soon as the loop ends. Any other
+ * use (get, len, printing, ...) remembers the elements it makes the
+ * generator produce, so they can be read again; at most the number given
+ * by the system property silly.generator.limit (default 1000000) are kept,
+ * which also stops len of an endless generator. A sequence that a for
+ * loop has streamed past its remembered elements is used up.
+ * 
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class LazySeqValue extends ListValue {
+
+    // ================================ Fields ================================
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int     LIMIT = Integer.getInteger("silly.generator.limit", 1000000);
+
+    private final Elements       elements;
+
+
+    // ============================= Constructors ============================
+    /**
+     * Constructs the sequence of values yielded by a generator.
+     * 
+     * @param generator the (not yet started) generator producing the elements
+     */
+    public LazySeqValue(Generator generator) {
+        this(new Elements(generator));
+    }
+
+    private LazySeqValue(Elements elements) {
+        super(elements);
+        this.elements = elements;
+        CLEANER.register(this, elements.generator::cancel);   // for sequences never read to the end
+    }
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Starts a single pass over the sequence for a for loop: the elements
+     * already remembered, then the rest straight from the generator without
+     * keeping them. The pass must be closed when the loop ends.
+     *
+     * @return the pass
+     */
+    public Pass stream() {
+        return new Pass(this.elements);
+    }
+
+
+    // ============================ Single Passes ===========================
+    /**
+     * Iterator for one pass of a for loop. Closing it stops the generator
+     * if the pass took elements from it directly.
+     */
+    public static class Pass implements Iterator<DataValue> {
+        private final Elements  elements;
+        private int             cursor;
+        private DataValue       pending;        // element taken by hasNext, not yet returned
+
+        Pass(Elements elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.pending == null) {
+                this.pending = this.elements.take(this.cursor);
+            }
+            return this.pending != null;
+        }
+
+        @Override
+        public DataValue next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            DataValue next = this.pending;
+            this.pending = null;
+            this.cursor++;
+            return next;
+        }
+
+        /**
+         * Ends the pass, stopping the generator if the pass used it up.
+         */
+        public void close() {
+            this.elements.endPass();
+        }
+    }
+
+
+    // ======================= Generator Failures =======================
+    /**
+     * Unchecked wrapper for the error that ended a generator, thrown from
+     * the list methods; it reports itself as the original error.
+     */
+    public static class GeneratorFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public GeneratorFailure(Exception cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        @Override
+        public String toString() {
+            return getCause().toString();
+        }
+    }
+
+
+    // ============================ Private Helpers ==========================
+    /**
+     * Read-only list view that pulls elements from the generator on demand
+     * and memoizes them, unless a single pass takes them (see take).
+     */
+    private static class Elements extends AbstractList<DataValue> {
+        private final Generator            generator;
+        private final ArrayList<DataValue> produced = new ArrayList<DataValue>();
+        private boolean                    complete;
+        private boolean                    streamed;    // a pass took elements past produced
+
+        Elements(Generator generator) {
+            this.generator = generator;
+        }
+
+        /**
+         * Produces elements until index is available or the generator ends.
+         *
+         * @return true if the element at index exists
+         */
+        synchronized boolean fill(int index) {
+            if (this.streamed && this.produced.size() <= index) {
+                throw usedUp();
+            }
+            while (!this.complete && this.produced.size() <= index) {
+                if (this.produced.size() == LIMIT) {
+                    this.generator.cancel();
+                    throw new GeneratorFailure(new Exception("RUNTIME ERROR: generator sequence has more than "
+                            + LIMIT + " elements (use a for loop to go through it)"));
+                }
+                DataValue next = produce();
+                if (next == null) {
+                    this.complete = true;
+                } else {
+                    this.produced.add(next);
+                }
+            }
+            return index < this.produced.size();
+        }
+
+        /**
+         * Gets the element at index for a single pass: a remembered element,
+         * or else the generator's next element, which is not remembered.
+         *
+         * @return the element, or null if the sequence has ended
+         */
+        synchronized DataValue take(int index) {
+            if (index < this.produced.size()) {
+                return this.produced.get(index);
+            }
+            if (this.streamed && index == this.produced.size()) {
+                throw usedUp();                         // a later pass, after one that streamed
+            }
+            if (this.complete) {
+                return null;
+            }
+            this.streamed = true;
+            DataValue next = produce();
+            if (next == null) {
+                this.complete = true;
+            }
+            return next;
+        }
+
+        /**
+         * Stops the generator once a pass has taken elements from it, since
+         * nothing can read the rest.
+         */
+        synchronized void endPass() {
+            if (this.streamed && !this.complete) {
+                this.generator.cancel();
+                this.complete = true;
+            }
+        }
+
+        private static GeneratorFailure usedUp() {
+            return new GeneratorFailure(new Exception(
+                    "RUNTIME ERROR: generator sequence was used up by a for loop"));
+        }
+
+        private DataValue produce() {
+            try {
+                return this.generator.next();
+            } catch (Exception e) {
+                throw new GeneratorFailure(e);
+            }
+        }
+
+        @Override
+        public synchronized DataValue get(int index) {
+            if (index < 0 || !fill(index)) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return this.produced.get(index);
+        }
+
+        @Override
+        public int size() {
+            fill(Integer.MAX_VALUE);
+            return this.produced.size();
+        }
+
+        @Override
+        public Iterator<DataValue> iterator() {
+            return new Iterator<DataValue>() {
+                private int cursor = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return fill(this.cursor);
+                }
+
+                @Override
+                public DataValue next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(this.cursor++);
+                }
+            };
+        }
+    }
+}
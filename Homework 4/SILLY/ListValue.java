@@ -1,3 +1,5 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,7 +11,10 @@ import java.util.List;
  */
 public class ListValue implements DataValue {
     // ================================ Fields ================================
+    public static final ListValue EMPTY = new ListValue();
+
     protected List<DataValue> value;
+    private int               hash;     // cached structural hash, 0 until computed
 
     // ============================= Core Methods ============================
     @Override
@@ -17,9 +22,71 @@ public class ListValue implements DataValue {
     @Override
     public DataValue.Type getType()  { return DataValue.Type.LIST; }
     
+    /**
+     * Compares two sequences element by element, stopping at the first
+     * difference. Elements of different types are ordered by type code; a
+     * proper prefix is less than the longer sequence.
+     * 
+     * @param other the value being compared with
+     * @return negative if <, 0 if ==, positive if >
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public int compareTo(DataValue other) {
-        return this.getValue().toString().compareTo(other.getValue().toString());
+        if (this == other) {
+            return 0;
+        }
+        List<DataValue> others = (List<DataValue>) other.getValue();
+        int shared = Math.min(this.value.size(), others.size());
+        for (int i = 0; i < shared; i++) {
+            int diff = compareElements(this.value.get(i), others.get(i));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return Integer.compare(this.value.size(), others.size());
+    }
+
+    /**
+     * Two sequences are equal if they have the same type and equal elements.
+     * Differing cached hash codes are used to reject unequal values early.
+     * 
+     * @param other Object to compare with
+     * @return true if the values are structurally equal
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ListValue)) {
+            return false;
+        }
+        ListValue that = (ListValue) other;
+        if (this.getType() != that.getType() || this.value.size() != that.value.size()
+                || (this.hash != 0 && that.hash != 0 && this.hash != that.hash)) {
+            return false;
+        }
+        return this.value.equals(that.value);
+    }
+
+    /**
+     * Computes a structural hash code from the elements, caching it on first
+     * use. List values are never modified after construction.
+     * 
+     * @return a hash code for the sequence
+     */
+    @Override
+    public int hashCode() {
+        int h = this.hash;
+        if (h == 0) {
+            h = this.getType().getCode();
+            for (DataValue v : this.value) {
+                h = 31 * h + v.hashCode();
+            }
+            this.hash = h;
+        }
+        return h;
     }
 
     // ========== Constructors ==========
@@ -40,19 +107,66 @@ public class ListValue implements DataValue {
         this.value.addAll(vals);
     }
 
+    /**
+     * Constructs a list over an existing (possibly computed) backing list,
+     * without copying it. The backing list must never change.
+     * 
+     * @param backing the elements of the list
+     */
+    protected ListValue(List<DataValue> backing) {
+        this.value = backing;
+    }
+
+    /**
+     * Returns a list value holding the provided values, sharing the empty
+     * list instance when there are none.
+     * 
+     * @param vals ArrayList of values to store in list
+     * @return a ListValue holding vals
+     */
+    public static ListValue valueOf(ArrayList<DataValue> vals) {
+        return vals.isEmpty() ? EMPTY : new ListValue(vals);
+    }
+
     // ========== Other Methods ==========
+    private static int compareElements(DataValue a, DataValue b) {
+        if (a.getType() != b.getType()) {
+            return Integer.compare(a.getType().getCode(), b.getType().getCode());
+        }
+        return a.compareTo(b);
+    }
+
     @Override
-    public String toString() {
-        String message = "[";
-        for (DataValue v : this.value) {
+    public void writeTo(Appendable out) throws IOException {
+        out.append('[');
+        for (int i = 0; i < this.value.size(); i++) {
+            DataValue v = this.value.get(i);
+            if (i > 0) {
+                out.append(' ');
+            }
             if (v.getType() == DataValue.Type.STRING) {
-                message += "\"" + v + "\" ";
+                out.append('"');
+                v.writeTo(out);
+                out.append('"');
             } else if (v.getType() == DataValue.Type.CHAR) {
-                message += "'" + v + "' ";
+                out.append('\'');
+                v.writeTo(out);
+                out.append('\'');
             } else {
-                message += v + " ";
+                v.writeTo(out);
             }
         }
-        return message.trim() + "]";
+        out.append(']');
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            this.writeTo(sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);   // StringBuilder never throws
+        }
+        return sb.toString();
     }
 }
\ No newline at end of file
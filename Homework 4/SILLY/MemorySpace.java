@@ -1,27 +1,127 @@
-import java.util.Stack;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class that defines the memory space for the SILLY interpreter.
  *
+ * Variables live in one growable stack of slots (a name, as an interned
+ * symbol id, and a value each). A scope is a window of that stack starting
+ * at a recorded index, so entering and leaving a scope only moves indices.
+ * Lookups scan down from the top of the stack, stopping at the base of the
+ * current function's frame, since a function cannot see the variables of
+ * its caller. A memory space is owned by a single interpreter thread and
+ * is not synchronized.
+ *
+ * Numbers, booleans and characters are stored unboxed: each slot has a tag
+ * and a long payload next to its value reference, and a DataValue object
+ * is only made when the value is read as one (e.g., to be printed or put
+ * in a list). Arithmetic reads and writes numbers directly (see
+ * lookupNumber and storeNumber), so loop counters need no allocation.
+ *
+ * Variables declared at the top level (outside of any block) are globals.
+ * They are kept in a separate symbol map of cells, one per name, and can
+ * be read from every function unless a local variable of the same name
+ * hides them. Only code outside of functions assigns them: as before
+ * globals were visible, an assignment in a function body declares (or
+ * updates) a local variable of the function. The map is shared with the
+ * memories forked for workers and is read without a lock; cells are added
+ * under the owner's lock (see SymbolMap and globalCell).
+ *
  * @author Dave Reed & Conler Simmons
  * @version 1/20/25, updated 3/27/25
  */
 public class MemorySpace {
 
     // ================================ Fields ================================
-    private final Stack<ScopeRec>           scopeStack;
+    private static final int INITIAL_SLOTS = 64;
+    private static final int INITIAL_SCOPES = 16;
+
+    private static final byte REF = 0, NUMBER = 1, BOOLEAN = 2, CHAR = 3;     // slot tags
+
+    private int[]                           names;           // variable slots: name symbols ...
+    private DataValue[]                     values;          // ... and their values (or null if unboxed)
+    private long[]                          payloads;        // unboxed values: double bits, 0/1 or char
+    private byte[]                          tags;            // kind of unboxed value, REF if none
+    private int                             top;             // number of slots in use
+
+    private int[]                           scopeStarts;     // first slot of each open scope
+    private int[]                           frameScopes;     // scope that starts the function frame of each open scope
+    private int                             depth;           // number of open scopes
+
     private final Map<String, FunctionDecl>  functionTable;
+    private final SymbolMap<GlobalCell>     globals;         // cells added under the owner's lock (owner only)
+    private final MemorySpace               globalOwner;     // memory holding the globals (this, unless forked)
+    private final boolean                   ownsGlobals;     // false: memory forked for a worker
+    private final String                    worker;          // what a forked memory runs, for errors
+    private final MemorySpace               outerMemory;     // memory this one was forked from, or null
+    private final int[]                     outerNames;      // read-only view of the forking memory's
+    private final DataValue[]               outerValues;     //   visible slots at fork time
+    private final long[]                    outerPayloads;
+    private final byte[]                    outerTags;
+    private final int                       outerBase, outerTop;
+
+    private final ArrayList<ArrayList<DataValue>> argumentPool;  // one buffer per call depth reached
+    private int                             callDepth;       // buffers currently borrowed
+    private final Return.ReturnException    returnSignal;    // reused by every return statement
 
     // ============================= Scope Methods ===========================
     /**
-     * Constructs a memory space with a single (global) scope record.
+     * Constructs a memory space with a single (global) scope.
      */
     public MemorySpace() {
-        this.scopeStack = new Stack<ScopeRec>();
+        this(null, null);
+    }
+
+    /**
+     * Constructs a memory space for a worker (a task, generator or parallel
+     * loop). Variables visible in the outer memory's current scope (and its
+     * functions) can be read but not assigned; everything declared by the
+     * worker stays local to it. The outer memory must not change its
+     * variables while the worker runs. Globals can be read but not
+     * assigned either, since workers run in no defined order with the
+     * program and each other.
+     *
+     * @param outer  the memory space being forked, or null for none
+     * @param worker what the memory runs (e.g., "a spawned task"), for errors
+     */
+    public MemorySpace(MemorySpace outer, String worker) {
+        this.names = new int[INITIAL_SLOTS];
+        this.values = new DataValue[INITIAL_SLOTS];
+        this.payloads = new long[INITIAL_SLOTS];
+        this.tags = new byte[INITIAL_SLOTS];
+        this.scopeStarts = new int[INITIAL_SCOPES];
+        this.frameScopes = new int[INITIAL_SCOPES];
         this.beginFunctionScope();
-        this.functionTable = new HashMap<String, FunctionDecl>();
+        this.functionTable = new ConcurrentHashMap<String, FunctionDecl>();   // read by spawned tasks
+        this.globals = (outer == null) ? new SymbolMap<GlobalCell>() : null;
+        this.globalOwner = (outer == null) ? this : outer.globalOwner;
+        this.ownsGlobals = (outer == null);
+        this.worker = worker;
+        this.outerMemory = outer;
+        this.outerNames = (outer == null) ? null : outer.names;
+        this.outerValues = (outer == null) ? null : outer.values;
+        this.outerPayloads = (outer == null) ? null : outer.payloads;
+        this.outerTags = (outer == null) ? null : outer.tags;
+        this.outerBase = (outer == null) ? 0 : outer.frameBase();
+        this.outerTop = (outer == null) ? 0 : outer.top;
+        this.argumentPool = new ArrayList<ArrayList<DataValue>>();
+        this.returnSignal = new Return.ReturnException();
+    }
+
+    /**
+     * Returns the memory space to the state it was constructed in (one empty
+     * base scope, no functions), keeping its storage, so that a parallel
+     * worker can run another iteration in it.
+     */
+    public void reset() {
+        Arrays.fill(this.values, 0, this.top, null);
+        Arrays.fill(this.tags, 0, this.top, REF);
+        this.top = 0;
+        this.depth = 1;
+        this.functionTable.clear();
     }
 
     /**
@@ -29,7 +129,7 @@ public class MemorySpace {
      * Used for compound statements.
      */
     public void beginNestedScope() {
-        this.scopeStack.push(new ScopeRec(this.scopeStack.peek()));
+        this.pushScope(this.frameScopes[this.depth - 1]);
     }
 
     /**
@@ -37,7 +137,7 @@ public class MemorySpace {
      * Used for function bodies.
      */
     public void beginFunctionScope() {
-        this.scopeStack.push(new ScopeRec(null));
+        this.pushScope(this.depth);
     }
 
     /**
@@ -45,7 +145,10 @@ public class MemorySpace {
      * All variables declared in this scope become inaccessible.
      */
     public void endCurrentScope() {
-        this.scopeStack.pop();
+        int start = this.scopeStarts[--this.depth];
+        Arrays.fill(this.values, start, this.top, null);   // let the values be collected
+        Arrays.fill(this.tags, start, this.top, REF);
+        this.top = start;
     }
 
     // ============================ Memory Methods ===========================
@@ -56,7 +159,17 @@ public class MemorySpace {
      * @param variable Token representing variable name
      */
     public void declareVariable(Token variable) {
-        this.scopeStack.peek().storeInScope(variable, null);
+        if (this.depth == 1 && this.ownsGlobals) {
+            this.globalCell(variable).declare();
+            return;
+        }
+        int slot = this.findSlot(variable, this.scopeStarts[this.depth - 1]);
+        if (slot >= 0) {
+            this.values[slot] = null;
+            this.tags[slot] = REF;
+        } else {
+            this.pushSlot(variable);
+        }
     }
 
     /**
@@ -66,7 +179,34 @@ public class MemorySpace {
      * @return true if it is declared and/or assigned; else, false
      */
     public boolean isDeclared(Token variable) {
-        return (this.findScopeinStack(variable) != null);
+        return this.findVisibleSlot(variable) >= 0 || this.findOuterSlot(variable) >= 0
+                || this.isDeclaredGlobal(variable);
+    }
+
+    /**
+     * Determines if a name is a declared global variable, without searching
+     * any scope. A global stays declared once it is.
+     *
+     * @param variable the name to be found
+     * @return true if it is a declared global; else, false
+     */
+    public boolean isDeclaredGlobal(Token variable) {
+        GlobalCell cell = this.findGlobal(variable);
+        return cell != null && cell.isDeclared();
+    }
+
+    /**
+     * Determines if an assignment made in the current scope would update a
+     * global, i.e., the name is a declared global and no function frame has
+     * been entered (assignments in a function are local to it). Scopes are
+     * not searched: a visible variable of the same name would be updated
+     * instead, which declares nothing either.
+     *
+     * @param variable the name to be assigned
+     * @return true if assigning it here declares nothing
+     */
+    public boolean assignsGlobal(Token variable) {
+        return this.inBaseFrame() && this.isDeclaredGlobal(variable);
     }
 
     /**
@@ -75,18 +215,139 @@ public class MemorySpace {
      * @param variable Token representing variable name
      * @param val Value to store
      */
-    public void storeValue(Token variable, DataValue val) {
-        this.findScopeinStack(variable).storeInScope(variable, val);
+    public void storeValue(Token variable, DataValue val) throws Exception {
+        int slot = this.findStoreSlot(variable);
+        if (slot >= 0) {
+            this.storeSlot(slot, val);
+        } else {
+            this.globalCell(variable).setValue(val);
+        }
+    }
+
+    /**
+     * Stores a number for a variable in its declaring scope, without boxing
+     * it as a NumberValue.
+     *
+     * @param variable Token representing variable name
+     * @param num      the number to store
+     */
+    public void storeNumber(Token variable, double num) throws Exception {
+        int slot = this.findStoreSlot(variable);
+        if (slot >= 0) {
+            this.values[slot] = null;
+            this.payloads[slot] = Double.doubleToRawLongBits(num);
+            this.tags[slot] = NUMBER;
+        } else {
+            this.globalCell(variable).setNumber(num);
+        }
+    }
+
+    /**
+     * Stores a value for a variable declared in the current scope, without
+     * searching the scope chain (e.g., a loop variable updated every pass).
+     *
+     * @param variable Token representing variable name
+     * @param val Value to store
+     */
+    public void storeLocalValue(Token variable, DataValue val) {
+        this.storeSlot(this.findSlot(variable, this.scopeStarts[this.depth - 1]), val);
+    }
+
+    /**
+     * Stores a number for a variable declared in the current scope, without
+     * boxing it or searching the scope chain.
+     *
+     * @param variable Token representing variable name
+     * @param num      the number to store
+     */
+    public void storeLocalNumber(Token variable, double num) {
+        int slot = this.findSlot(variable, this.scopeStarts[this.depth - 1]);
+        this.values[slot] = null;
+        this.payloads[slot] = Double.doubleToRawLongBits(num);
+        this.tags[slot] = NUMBER;
     }
 
     /**
      * Determines the value associated with a variable in memory.
      *
      * @param variable the variable to look up
-     * @return the value associated with that variable
+     * @return the value associated with that variable, or null if none
      */
     public DataValue lookupValue(Token variable) {
-        return this.findScopeinStack(variable).lookupInScope(variable);
+        int slot = this.findVisibleSlot(variable);
+        if (slot >= 0) {
+            if (this.values[slot] == null && this.tags[slot] == NUMBER) {
+                this.values[slot] = box(null, this.payloads[slot], NUMBER);    // keep it for later reads
+            }
+            return box(this.values[slot], this.payloads[slot], this.tags[slot]);
+        }
+        slot = this.findOuterSlot(variable);
+        if (slot >= 0) {
+            return box(this.outerValues[slot], this.outerPayloads[slot], this.outerTags[slot]);
+        }
+        GlobalCell cell = this.findGlobal(variable);
+        return (cell == null) ? null : cell.getValue();
+    }
+
+    /**
+     * Determines the number associated with a variable, without boxing it.
+     *
+     * @param variable the (declared) variable to look up
+     * @return the number associated with that variable
+     * @throws Exception if the variable does not hold a number
+     */
+    public double lookupNumber(Token variable) throws Exception {
+        int slot = this.findVisibleSlot(variable);
+        if (slot >= 0) {
+            if (this.values[slot] == null && this.tags[slot] == NUMBER) {
+                return Double.longBitsToDouble(this.payloads[slot]);
+            }
+            return NumberValue.toNumber(this.values[slot]);
+        }
+        slot = this.findOuterSlot(variable);
+        if (slot >= 0) {
+            return NumberValue.toNumber(box(this.outerValues[slot], this.outerPayloads[slot], this.outerTags[slot]));
+        }
+        GlobalCell cell = this.findGlobal(variable);
+        return (cell == null) ? NumberValue.toNumber(null) : cell.getNumber();
+    }
+
+    // ========== Call Storage ==========
+    /**
+     * Borrows an empty list for the arguments of a function call. The lists
+     * are pooled, one per call depth, so calls do not allocate them; each
+     * must be given back with releaseArguments once the call is over.
+     *
+     * @return an empty argument list
+     */
+    public ArrayList<DataValue> borrowArguments() {
+        if (this.callDepth == this.argumentPool.size()) {
+            this.argumentPool.add(new ArrayList<DataValue>());
+        }
+        return this.argumentPool.get(this.callDepth++);
+    }
+
+    /**
+     * Gives back the list borrowed most recently by borrowArguments.
+     *
+     * @param args the argument list
+     */
+    public void releaseArguments(ArrayList<DataValue> args) {
+        args.clear();
+        this.callDepth--;
+    }
+
+    /**
+     * Gets the exception thrown to carry a return value out of a function
+     * body. A single stackless instance is reused by this memory, since the
+     * value is taken as soon as the call catches it.
+     *
+     * @param value the value being returned
+     * @return the return signal, holding value
+     */
+    public Return.ReturnException returnSignal(DataValue value) {
+        this.returnSignal.setReturnValue(value);
+        return this.returnSignal;
     }
 
     // ========== Function Operations ==========
@@ -108,7 +369,36 @@ public class MemorySpace {
      *         found
      */
     public FunctionDecl lookupFunction(String functionName) {
-        return functionTable.get(functionName);
+        FunctionDecl function = functionTable.get(functionName);
+        if (function == null && this.outerMemory != null) {
+            function = this.outerMemory.lookupFunction(functionName);
+        }
+        return function;
+    }
+
+    /**
+     * Gets the functions declared in this memory space (not including those
+     * of the memory it was forked from).
+     * 
+     * @return a read-only view of the function map, by name
+     */
+    public Map<String, FunctionDecl> getFunctions() {
+        return Collections.unmodifiableMap(this.functionTable);
+    }
+
+    /**
+     * Lists the declared global variables.
+     * 
+     * @return the cells of the declared globals
+     */
+    public ArrayList<GlobalCell> getGlobals() {
+        ArrayList<GlobalCell> declared = new ArrayList<GlobalCell>();
+        for (GlobalCell cell : this.globalOwner.globals.values()) {
+            if (cell.isDeclared()) {
+                declared.add(cell);
+            }
+        }
+        return declared;
     }
 
     /**
@@ -118,22 +408,208 @@ public class MemorySpace {
      * @return true if the function is declared; else, false
      */
     public boolean isFunctionDeclared(String functionName) {
-        return functionTable.containsKey(functionName);
+        return functionTable.containsKey(functionName)
+                || (this.outerMemory != null && this.outerMemory.isFunctionDeclared(functionName));
     }
 
     // ========== Private Helpers ==========
     /**
-     * Searches scope stack for variable's declaring scope.
-     * Follows scope chain from current to global.
+     * Finds the slot an assignment to variable must write: its visible slot,
+     * a new slot in the current scope if a function frame has been entered
+     * (a global read by the function is not assigned, but hidden), or else
+     * its global cell. A forked memory cannot change the variables of the
+     * memory it was forked from, nor the globals.
+     * 
+     * @param variable the (declared) variable being assigned
+     * @return the slot to write, or -1 to write the variable's global cell
+     * @throws Exception if the variable is not this memory's to assign
+     */
+    private int findStoreSlot(Token variable) throws Exception {
+        int slot = this.findVisibleSlot(variable);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (!this.inBaseFrame()) {
+            return this.pushSlot(variable);
+        }
+        if (this.ownsGlobals) {
+            return -1;
+        }
+        if (this.findOuterSlot(variable) >= 0) {
+            throw new Exception("RUNTIME ERROR: Cannot assign to outer variable '" + variable
+                    + "' inside " + this.worker);
+        }
+        throw new Exception("RUNTIME ERROR: Cannot assign to global variable '" + variable
+                + "' inside " + this.worker);
+    }
+
+    /**
+     * Resolves a name to its global cell, creating an (undeclared) cell the
+     * first time the name is seen. The cell never changes afterwards.
+     * 
+     * @param variable the name to resolve
+     * @return the global cell for that name
+     */
+    private GlobalCell globalCell(Token variable) {
+        GlobalCell cell = this.findGlobal(variable);
+        return (cell != null) ? cell : this.globalOwner.addGlobal(variable);
+    }
+
+    /**
+     * Finds the global cell of a name, without a lock (the map publishes
+     * each cell it adds).
+     * 
+     * @param variable the name to look up
+     * @return the global cell for that name, or null if there is none yet
+     */
+    private GlobalCell findGlobal(Token variable) {
+        return this.globalOwner.globals.get(variable.getSymbol());
+    }
+
+    /**
+     * Adds a cell for a name to the globals of this (owning) memory. Workers
+     * may add cells at the same time, and the map takes one writer at a
+     * time, so additions are synchronized.
+     * 
+     * @param variable the name to add
+     * @return the global cell for that name
+     */
+    private synchronized GlobalCell addGlobal(Token variable) {
+        GlobalCell cell = this.globals.get(variable.getSymbol());
+        if (cell == null) {
+            cell = new GlobalCell(variable);
+            this.globals.put(variable.getSymbol(), cell);
+        }
+        return cell;
+    }
+
+    /**
+     * Writes a value to a slot, unboxing booleans and characters (their
+     * boxes are shared anyway). Numbers keep their box as well as the bits.
+     */
+    private void storeSlot(int slot, DataValue val) {
+        if (val == null) {
+            this.values[slot] = null;
+            this.tags[slot] = REF;
+        } else if (val.getType() == DataValue.Type.NUMBER) {
+            this.values[slot] = val;
+            this.payloads[slot] = Double.doubleToRawLongBits(((NumberValue) val).toDouble());
+            this.tags[slot] = NUMBER;
+        } else if (val.getType() == DataValue.Type.BOOLEAN) {
+            this.values[slot] = null;
+            this.payloads[slot] = ((Boolean) val.getValue()) ? 1 : 0;
+            this.tags[slot] = BOOLEAN;
+        } else if (val.getType() == DataValue.Type.CHAR) {
+            this.values[slot] = null;
+            this.payloads[slot] = (Character) val.getValue();
+            this.tags[slot] = CHAR;
+        } else {
+            this.values[slot] = val;
+            this.tags[slot] = REF;
+        }
+    }
+
+    /**
+     * Makes the DataValue held by a slot, given its reference, payload and tag.
+     */
+    private static DataValue box(DataValue value, long payload, byte tag) {
+        if (value != null) {
+            return value;
+        }
+        switch (tag) {
+            case NUMBER:    return NumberValue.valueOf(Double.longBitsToDouble(payload));
+            case BOOLEAN:   return BooleanValue.valueOf(payload != 0);
+            case CHAR:      return CharValue.valueOf((char) payload);
+            default:        return null;
+        }
+    }
+
+    private int pushSlot(Token variable) {
+        if (this.top == this.names.length) {
+            this.names = Arrays.copyOf(this.names, 2 * this.top);
+            this.values = Arrays.copyOf(this.values, 2 * this.top);
+            this.payloads = Arrays.copyOf(this.payloads, 2 * this.top);
+            this.tags = Arrays.copyOf(this.tags, 2 * this.top);
+        }
+        this.names[this.top] = variable.getSymbol();
+        this.values[this.top] = null;
+        this.tags[this.top] = REF;
+        return this.top++;
+    }
+
+    private void pushScope(int frameScope) {
+        if (this.depth == this.scopeStarts.length) {
+            this.scopeStarts = Arrays.copyOf(this.scopeStarts, 2 * this.depth);
+            this.frameScopes = Arrays.copyOf(this.frameScopes, 2 * this.depth);
+        }
+        this.scopeStarts[this.depth] = this.top;
+        this.frameScopes[this.depth++] = frameScope;
+    }
+
+    /**
+     * Finds the first slot of the current function's frame.
+     * 
+     * @return the lowest slot visible from the current scope
+     */
+    private int frameBase() {
+        return this.scopeStarts[this.frameScopes[this.depth - 1]];
+    }
+
+    /**
+     * Determines if no function frame has been entered in this memory,
+     * i.e., the current scope can see the memory's base scope.
+     * 
+     * @return true if the current scope is in the base frame
+     */
+    private boolean inBaseFrame() {
+        return this.frameScopes[this.depth - 1] == 0;
+    }
+
+    /**
+     * Searches the slots from the top of the stack down to floor.
      * 
      * @param variable Token to search for
-     * @return ScopeRec containing variable or null if not found
+     * @param floor    the lowest slot to examine
+     * @return the slot holding variable or -1 if not found
      */
-    private ScopeRec findScopeinStack(Token variable) {
-        ScopeRec stepper = this.scopeStack.peek();
-        while (stepper != null && !stepper.declaredInScope(variable)) {
-            stepper = stepper.getParentScope();
+    private int findSlot(Token variable, int floor) {
+        int symbol = variable.getSymbol();
+        for (int i = this.top - 1; i >= floor; i--) {
+            if (this.names[i] == symbol) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Searches the slots visible from the current scope: those of the
+     * current function's frame.
+     * 
+     * @param variable Token to search for
+     * @return the slot holding variable or -1 if not found
+     */
+    private int findVisibleSlot(Token variable) {
+        return this.findSlot(variable, this.frameBase());
+    }
+
+    /**
+     * Searches the read-only outer slots, which are only visible when
+     * no function frame has been entered in this memory.
+     * 
+     * @param variable Token to search for
+     * @return the outer slot holding variable or -1 if not found
+     */
+    private int findOuterSlot(Token variable) {
+        if (this.outerNames == null || !this.inBaseFrame()) {
+            return -1;
+        }
+        int symbol = variable.getSymbol();
+        for (int i = this.outerTop - 1; i >= this.outerBase; i--) {
+            if (this.outerNames[i] == symbol) {
+                return i;
+            }
         }
-        return stepper;
+        return -1;
     }
 }
\ No newline at end of file
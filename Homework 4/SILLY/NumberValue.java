@@ -6,8 +6,18 @@
 public class NumberValue implements DataValue {
 
     // ======================== Fields ========================
+    private static final int           CACHE_LOW  = -128;
+    private static final int           CACHE_HIGH = 1023;
+    private static final NumberValue[] CACHE      = new NumberValue[CACHE_HIGH - CACHE_LOW + 1];
+
     private final Double numericValue;    // renamed from numValue
 
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new NumberValue(i + CACHE_LOW);
+        }
+    }
+
 
     // ======================== Constructors ========================
     public NumberValue()        { this(0); }
@@ -15,6 +25,46 @@ public class NumberValue implements DataValue {
         this.numericValue = (Double) num;
     }
 
+    /**
+     * Returns a number value, reusing a shared instance for small integers
+     * (the common case for loop counters, indexes and lengths).
+     *
+     * @param num the number being stored
+     * @return a NumberValue holding num
+     */
+    public static NumberValue valueOf(double num) {
+        int whole = (int) num;
+        if (whole == num && whole >= CACHE_LOW && whole <= CACHE_HIGH
+                && Double.doubleToRawLongBits(num) != Double.doubleToRawLongBits(-0.0)) {
+            return CACHE[whole - CACHE_LOW];
+        }
+        return new NumberValue(num);
+    }
+
+
+    /**
+     * Gets the number as a primitive double.
+     *
+     * @return the number stored
+     */
+    public double toDouble() {
+        return this.numericValue;
+    }
+
+    /**
+     * Gets the number held by a value that must be a number.
+     *
+     * @param value the value to convert
+     * @return the number held by value
+     * @throws Exception if value is not a number
+     */
+    public static double toNumber(DataValue value) throws Exception {
+        if (value == null || value.getType() != DataValue.Type.NUMBER) {
+            throw new Exception("RUNTIME ERROR: Number value expected.");
+        }
+        return ((NumberValue) value).toDouble();
+    }
+
 
     // ======================== Interface Methods ========================
     @Override
@@ -28,6 +78,16 @@ public class NumberValue implements DataValue {
         return ((Double) this.getValue()).compareTo((Double) other.getValue());
     }
 
+    @Override
+    public boolean equals(Object other) {
+        return (other instanceof NumberValue) && ((NumberValue) other).numericValue.equals(this.numericValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.numericValue.hashCode();
+    }
+
     @Override
     public String toString() {
         if (isInteger(this.numericValue)) {
@@ -39,4 +99,4 @@ public class NumberValue implements DataValue {
     private boolean isInteger(double num) {
         return num == Math.floor(num);
     }
-}
\ No newline at end of file
+}
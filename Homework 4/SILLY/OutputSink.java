@@ -0,0 +1,125 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Class that buffers all program output for the SILLY interpreter.
+ * Values are streamed into a large buffer and handed to the underlying
+ * stream according to the flush policy, instead of once per line.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class OutputSink {
+
+    // ================================ Types =================================
+    public static enum FlushPolicy {
+        LINE,       // flush after every line (interactive mode)
+        BUFFER      // flush only when the buffer fills or on an explicit flush (file mode)
+    }
+
+    // ================================ Fields ================================
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final Writer     writer;
+    private FlushPolicy      policy;
+
+
+    // ============================= Constructors ============================
+    /**
+     * Constructs an output sink writing to the given character stream.
+     *
+     * @param out        the writer that receives program output
+     * @param policy     when buffered output is handed to the writer
+     * @param bufferSize the number of characters buffered before a forced flush
+     */
+    public OutputSink(Writer out, FlushPolicy policy, int bufferSize) {
+        this.writer = new BufferedWriter(out, bufferSize);
+        this.policy = policy;
+    }
+
+    /**
+     * Constructs an output sink writing to the given stream.
+     *
+     * @param out        the stream that receives program output
+     * @param policy     when buffered output is handed to the stream
+     * @param bufferSize the number of characters buffered before a forced flush
+     */
+    public OutputSink(OutputStream out, FlushPolicy policy, int bufferSize) {
+        this(new OutputStreamWriter(out), policy, bufferSize);
+    }
+
+    /**
+     * Constructs an output sink with the default buffer size.
+     *
+     * @param out    the stream that receives program output
+     * @param policy when buffered output is handed to the stream
+     */
+    public OutputSink(OutputStream out, FlushPolicy policy) {
+        this(out, policy, DEFAULT_BUFFER_SIZE);
+    }
+
+
+    // ============================= Access Methods ==========================
+    public FlushPolicy getPolicy()                   { return this.policy; }
+    public void setPolicy(FlushPolicy policy)        { this.policy = policy; }
+
+
+    // ============================= Output Methods ==========================
+    /**
+     * Writes the printed form of a value followed by a line break. The value
+     * is rendered before the sink is locked: rendering a generator sequence
+     * runs the generator, whose own prints must not wait for this one.
+     *
+     * @param val the value to be printed
+     * @throws IOException if the output cannot be written
+     */
+    public void println(DataValue val) throws IOException {
+        StringBuilder line = new StringBuilder();
+        val.writeTo(line);
+        synchronized (this) {
+            this.writer.append(line);
+            this.endLine();
+        }
+    }
+
+    /**
+     * Writes a line of text followed by a line break.
+     *
+     * @param text the text to be printed
+     * @throws IOException if the output cannot be written
+     */
+    public synchronized void println(String text) throws IOException {
+        this.writer.write(text);
+        this.endLine();
+    }
+
+    /**
+     * Writes text without a line break (e.g., a prompt).
+     *
+     * @param text the text to be printed
+     * @throws IOException if the output cannot be written
+     */
+    public synchronized void print(String text) throws IOException {
+        this.writer.write(text);
+    }
+
+    /**
+     * Hands all buffered output to the underlying stream.
+     *
+     * @throws IOException if the output cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    // ============================ Private Helpers ==========================
+    private void endLine() throws IOException {
+        this.writer.write(System.lineSeparator());
+        if (this.policy == FlushPolicy.LINE) {
+            this.writer.flush();
+        }
+    }
+}
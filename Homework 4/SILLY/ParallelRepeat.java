@@ -0,0 +1,298 @@
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Derived class that represents a parallel repeat statement in the SILLY
+ * language:
+ *
+ *     parallel repeat COUNT [INDEX] [into RESULT [reduce FUNC INIT]] { ... }
+ *
+ * Iterations are split across a fork-join pool. Each iteration runs in its
+ * own scope with INDEX (if given) set to its 0-based iteration number; outer
+ * variables can be read but not assigned. To keep results deterministic,
+ * the output of each iteration is buffered and printed in iteration order,
+ * and with "into RESULT" the value each iteration leaves in its local RESULT
+ * is gathered, in iteration order, into a list stored in RESULT. Adding
+ * "reduce FUNC INIT" folds those values instead, again in iteration order,
+ * as (reduce FUNC INIT results) would, so RESULT does not depend on how the
+ * iterations were scheduled.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class ParallelRepeat extends Statement {
+
+    // =========================== Fields ===========================
+    private static final int    OUTPUT_BUFFER_SIZE = 256;
+
+    private final Expression    iterationExpr;
+    private final Token         indexVar;       // null if no index is requested
+    private final Token         resultVar;      // null if there is no into clause
+    private final Token         reduceFunc;     // null if there is no reduce clause
+    private final Expression    reduceInit;
+    private final Compound      loopBody;
+
+
+    // ======================= Constructor ========================
+    /**
+     * Creates a parallel repeat statement by parsing the iteration count,
+     * the optional index and result variables, and the body.
+     *
+     * @param input TokenStream to read from
+     * @throws Exception if parallel repeat statement syntax is invalid
+     */
+    public ParallelRepeat(TokenStream input) throws Exception {
+        if (!input.next().toString().equals("parallel") || !input.next().toString().equals("repeat")) {
+            throw new Exception("SYNTAX ERROR: Malformed parallel repeat statement");
+        }
+        this.iterationExpr = new Expression(input);
+
+        this.indexVar = (input.lookAhead().getType() == Token.Type.IDENTIFIER) ? input.next() : null;
+        if (input.lookAhead().toString().equals("into")) {
+            input.next();
+            this.resultVar = input.next();
+            if (this.resultVar.getType() != Token.Type.IDENTIFIER) {
+                throw new Exception("SYNTAX ERROR: parallel repeat result must be an identifier");
+            }
+        } else {
+            this.resultVar = null;
+        }
+        if (this.resultVar != null && input.lookAhead().toString().equals("reduce")) {
+            input.next();
+            this.reduceFunc = input.next();
+            if (this.reduceFunc.getType() != Token.Type.IDENTIFIER) {
+                throw new Exception("SYNTAX ERROR: parallel repeat reduce needs a function name");
+            }
+            this.reduceInit = new Expression(input);
+        } else {
+            this.reduceFunc = null;
+            this.reduceInit = null;
+        }
+        this.loopBody = new Compound(input);
+        this.resolveScopes(new HashSet<Token>());
+    }
+
+    /**
+     * Reads a parallel repeat statement written by AstEncoder.
+     *
+     * @param in the decoder to read from
+     * @throws IOException if the data is not a valid parallel repeat statement
+     */
+    public ParallelRepeat(AstDecoder in) throws IOException {
+        this.iterationExpr = new Expression(in);
+        this.indexVar = in.readToken();
+        this.resultVar = in.readToken();
+        this.reduceFunc = in.readToken();
+        this.reduceInit = (this.reduceFunc == null) ? null : new Expression(in);
+        this.loopBody = in.readCompound();
+        this.resolveScopes(new HashSet<Token>());
+    }
+
+
+    // ======================= Core Methods =======================
+    /**
+     * Runs all iterations on the common fork-join pool, then replays their
+     * output and reports the first failing iteration (if any) in order.
+     *
+     * @throws Exception if evaluation fails or an iteration fails
+     */
+    @Override
+    public void execute(InterpreterContext context) throws Exception {
+        int count = Repeat.toIterationCount(this.iterationExpr.evaluate(context));
+        Iteration[] iterations = new Iteration[count];
+        ForkJoinPool.commonPool().invoke(new Slice(context, iterations, 0, count,
+                Math.max(1, count / (4 * ForkJoinPool.getCommonPoolParallelism()))));
+
+        ArrayList<DataValue> results = new ArrayList<DataValue>(count);
+        for (Iteration it : iterations) {
+            if (!it.output.isEmpty()) {
+                context.getOutput().print(it.output);
+            }
+            if (it.error != null) {
+                throw it.error;
+            }
+            results.add(it.result);
+        }
+
+        if (this.resultVar != null) {
+            storeResult(context, (this.reduceFunc == null) ? ListValue.valueOf(results) : reduce(context, results));
+        }
+    }
+
+    @Override
+    public boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        return this.iterationExpr.isPure(context, visiting)
+                && this.loopBody.isPure(context, visiting)
+                && (this.reduceFunc == null || (this.reduceInit.isPure(context, visiting)
+                        && Expression.isPureFunction(context, this.reduceFunc, visiting)));
+    }
+
+    @Override
+    void resolveScopes(Set<Token> declared) {
+        this.loopBody.resolveScopes(withLocals(declared, this.indexVar, this.resultVar));
+    }
+
+    @Override
+    public Token boundVariable() {
+        return this.resultVar;
+    }
+
+    @Override
+    public void encode(AstEncoder out) throws IOException {
+        out.writeByte(AstEncoder.PARALLEL_REPEAT);
+        this.iterationExpr.encode(out);
+        out.writeToken(this.indexVar);
+        out.writeToken(this.resultVar);
+        out.writeToken(this.reduceFunc);
+        if (this.reduceFunc != null) {
+            this.reduceInit.encode(out);
+        }
+        out.writeStatement(this.loopBody);
+    }
+
+    @Override
+    public String toString() {
+        return "parallel repeat " + this.iterationExpr
+                + (this.indexVar == null ? "" : " " + this.indexVar)
+                + (this.resultVar == null ? "" : " into " + this.resultVar)
+                + (this.reduceFunc == null ? "" : " reduce " + this.reduceFunc + " " + this.reduceInit)
+                + " " + this.loopBody;
+    }
+
+
+    // ====================== Helper Methods ======================
+    /**
+     * Runs one iteration in a private worker memory forked from context.
+     *
+     * @param context the context the statement was executed in
+     * @param memory  the (reset) worker memory to run in
+     * @param index   the 0-based iteration number
+     * @return the outcome of the iteration
+     */
+    private Iteration runIteration(InterpreterContext context, MemorySpace memory, int index) {
+        Iteration it = new Iteration();
+        StringWriter text = new StringWriter();
+        OutputSink output = new OutputSink(text, OutputSink.FlushPolicy.BUFFER, OUTPUT_BUFFER_SIZE);
+        InterpreterContext worker = new InterpreterContext(memory, output);
+        try {
+            if (this.indexVar != null) {
+                worker.getMemory().declareVariable(this.indexVar);
+                worker.getMemory().storeValue(this.indexVar, NumberValue.valueOf(index));
+            }
+            if (this.resultVar != null) {
+                worker.getMemory().declareVariable(this.resultVar);
+            }
+            this.loopBody.execute(worker);
+            if (this.resultVar != null) {
+                it.result = worker.getMemory().lookupValue(this.resultVar);
+                if (it.result == null) {
+                    throw new Exception("RUNTIME ERROR: parallel repeat iteration did not assign "
+                            + this.resultVar);
+                }
+            }
+        } catch (Return.ReturnException re) {
+            it.error = new Exception("RUNTIME ERROR: Return statement inside parallel repeat");
+        } catch (Exception e) {
+            it.error = e;
+        }
+        try {
+            output.flush();
+        } catch (IOException e) {
+            // a StringWriter never fails
+        }
+        it.output = text.toString();
+        return it;
+    }
+
+    /**
+     * Folds the iteration results, in iteration order, with the reduce
+     * function, starting from the value of INIT.
+     *
+     * @param context the context the statement was executed in
+     * @param results the result of each iteration, in iteration order
+     * @return the reduced value
+     * @throws Exception if the function is missing, has the wrong arity or fails
+     */
+    private DataValue reduce(InterpreterContext context, ArrayList<DataValue> results) throws Exception {
+        FunctionDecl function = context.getMemory().lookupFunction(this.reduceFunc.toString());
+        if (function == null) {
+            throw new Exception("RUNTIME ERROR: Function '" + this.reduceFunc + "' is not declared");
+        }
+        if (function.getParameters().size() != 2) {
+            throw new Exception("RUNTIME ERROR: Function '" + this.reduceFunc + "' expects " +
+                    function.getParameters().size() + " parameters, got 2");
+        }
+        DataValue acc = this.reduceInit.evaluate(context);
+        ArrayList<DataValue> args = new ArrayList<DataValue>(2);
+        args.add(null);
+        args.add(null);
+        for (DataValue result : results) {
+            args.set(0, acc);
+            args.set(1, result);
+            acc = function.call(context, args);
+        }
+        return acc;
+    }
+
+    private void storeResult(InterpreterContext context, DataValue result) throws Exception {
+        if (context.getMemory().isFunctionDeclared(this.resultVar.toString())) {
+            throw new Exception("RUNTIME ERROR: Cannot assign to '" + this.resultVar + "' - name exists as function");
+        }
+        if (!context.getMemory().isDeclared(this.resultVar)) {
+            context.getMemory().declareVariable(this.resultVar);
+        }
+        context.getMemory().storeValue(this.resultVar, result);
+    }
+
+
+    // ====================== Worker Classes ======================
+    /**
+     * The outcome of a single iteration.
+     */
+    private static class Iteration {
+        String      output;
+        DataValue   result;
+        Exception   error;
+    }
+
+    /**
+     * Fork-join task that runs a range of iterations, splitting it in half
+     * until it is no larger than the grain size.
+     */
+    private class Slice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final InterpreterContext  context;
+        private final Iteration[]         iterations;
+        private final int                 low, high, grain;
+
+        Slice(InterpreterContext context, Iteration[] iterations, int low, int high, int grain) {
+            this.context = context;
+            this.iterations = iterations;
+            this.low = low;
+            this.high = high;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.high - this.low <= this.grain) {
+                // the iterations of a slice run one after another, so they share a worker memory
+                MemorySpace memory = new MemorySpace(this.context.getMemory(), "parallel repeat");
+                for (int i = this.low; i < this.high; i++) {
+                    memory.reset();
+                    this.iterations[i] = runIteration(this.context, memory, i);
+                }
+            } else {
+                int mid = (this.low + this.high) >>> 1;
+                invokeAll(new Slice(this.context, this.iterations, this.low, mid, this.grain),
+                          new Slice(this.context, this.iterations, mid, this.high, this.grain));
+            }
+        }
+    }
+}
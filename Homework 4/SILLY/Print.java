@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.util.Set;
+
 /**
  * Derived class that represents an output statement in the SILLY language.
  * 
@@ -18,11 +21,32 @@ public class Print extends Statement {
         this.displayExpr = new Expression(input);
     }
 
+    /**
+     * Reads a print statement written by AstEncoder.
+     *
+     * @param in the decoder to read from
+     * @throws IOException if the data is not a valid print statement
+     */
+    public Print(AstDecoder in) throws IOException {
+        this.displayExpr = new Expression(in);
+    }
+
 
     // ======================= Core Methods =======================
     @Override
-    public void execute() throws Exception {
-        System.out.println(displayExpr.evaluate().toString());
+    public void execute(InterpreterContext context) throws Exception {
+        context.getOutput().println(displayExpr.evaluate(context));
+    }
+
+    @Override
+    public boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        return false;
+    }
+
+    @Override
+    public void encode(AstEncoder out) throws IOException {
+        out.writeByte(AstEncoder.PRINT);
+        this.displayExpr.encode(out);
     }
 
     @Override
@@ -0,0 +1,300 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Class that profiles a running program (Interpreter --profile FILE). Each
+ * top-level statement and each call of a user-defined function is timed,
+ * recording its call count, inclusive and exclusive nanoseconds, and the
+ * bytes its thread allocated (from ThreadMXBean). A recursive function's
+ * inclusive figures count only its outermost calls. Executing a func
+ * declaration is timed apart from the calls of the function it declares.
+ *
+ * Every thread builds its own tree of the call paths seen, guarded by a
+ * lock that only that thread takes while the program runs. At the end,
+ * the profiler is stopped and each tree is read under its lock, so a
+ * thread still running (e.g., a task when the program exits) is never
+ * read halfway through an update. The trees are summed into a report
+ * sorted by exclusive time, and written out as collapsed stacks
+ * ("frame;frame;frame microseconds" per line), which flame graph tools
+ * such as flamegraph.pl can render.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class Profiler {
+
+    // ================================ Fields ================================
+    private static volatile Profiler active;            // null unless profiling
+
+    private final long                                  startNanos;
+    private final com.sun.management.ThreadMXBean       threadBean;
+    private final ConcurrentLinkedQueue<ThreadProfile>  profiles;
+    private final ThreadLocal<ThreadProfile>            current;
+
+    /**
+     * One node of a thread's call tree: a statement, or a call of a
+     * function, reached by one path. Calls are keyed by the function's body
+     * and statements by themselves, so a func declaration and the calls of
+     * its function never share a node.
+     */
+    private static final class Node {
+        final Object                            key;
+        final Statement                         stmt;       // the FunctionDecl, for a call
+        final boolean                           call;
+        final IdentityHashMap<Object, Node>     children = new IdentityHashMap<Object, Node>();
+        long calls, inclusiveNanos, exclusiveNanos, inclusiveBytes, exclusiveBytes;
+
+        Node(Object key, Statement stmt, boolean call) {
+            this.key = key;
+            this.stmt = stmt;
+            this.call = call;
+        }
+    }
+
+    /**
+     * The call tree and current stack of one thread. Updates and reads of
+     * the tree hold the profile's lock.
+     */
+    private static final class ThreadProfile {
+        final Node                                  root = new Node(null, null, false);
+        final IdentityHashMap<Object, int[]>        activeCalls = new IdentityHashMap<Object, int[]>();
+        Node[]  stack = new Node[64];
+        long[]  startNanos = new long[64];
+        long[]  startBytes = new long[64];
+        long[]  childNanos = new long[64];
+        long[]  childBytes = new long[64];
+        int     depth;
+    }
+
+
+    // ============================= Constructors ============================
+    private Profiler() {
+        this.startNanos = System.nanoTime();
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.threadBean.setThreadAllocatedMemoryEnabled(true);
+        this.profiles = new ConcurrentLinkedQueue<ThreadProfile>();
+        this.current = ThreadLocal.withInitial(() -> {
+            ThreadProfile profile = new ThreadProfile();
+            this.profiles.add(profile);
+            return profile;
+        });
+    }
+
+    /**
+     * Starts profiling everything the interpreter runs from now on.
+     *
+     * @return the profiler collecting the results
+     */
+    public static Profiler start() {
+        active = new Profiler();
+        return active;
+    }
+
+    /**
+     * Finds the profiler in use.
+     *
+     * @return the active profiler, or null if profiling is off
+     */
+    public static Profiler active() {
+        return active;
+    }
+
+    /**
+     * Stops profiling: statements and calls started from now on are not
+     * recorded. Those already started are still recorded when they end.
+     */
+    public void stop() {
+        if (active == this) {
+            active = null;
+        }
+    }
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Records the start of a top-level statement on this thread. Every
+     * enter must be matched by an exit, even if the statement fails.
+     *
+     * @param stmt the statement being started
+     */
+    public void enter(Statement stmt) {
+        this.enter(stmt, stmt, false);
+    }
+
+    /**
+     * Records the start of a call of a user-defined function on this
+     * thread. Every call must be matched by an exit, even if it fails.
+     *
+     * @param function the function being called
+     */
+    public void enterCall(FunctionDecl function) {
+        this.enter(function.getBody(), function, true);
+    }
+
+    /**
+     * Records the end of the statement or call most recently entered on
+     * this thread.
+     */
+    public void exit() {
+        long now = System.nanoTime();
+        long bytes = this.allocatedBytes();
+        ThreadProfile profile = this.current.get();
+        synchronized (profile) {
+            int depth = --profile.depth;
+            Node node = profile.stack[depth];
+            long inclusiveNanos = now - profile.startNanos[depth];
+            long inclusiveBytes = bytes - profile.startBytes[depth];
+
+            node.calls++;
+            node.exclusiveNanos += inclusiveNanos - profile.childNanos[depth];
+            node.exclusiveBytes += inclusiveBytes - profile.childBytes[depth];
+            if (--profile.activeCalls.get(node.key)[0] == 0) {      // not inside another call of itself
+                node.inclusiveNanos += inclusiveNanos;
+                node.inclusiveBytes += inclusiveBytes;
+            }
+            if (depth > 0) {
+                profile.childNanos[depth - 1] += inclusiveNanos;
+                profile.childBytes[depth - 1] += inclusiveBytes;
+            }
+            profile.stack[depth] = null;
+        }
+    }
+
+    /**
+     * Prints the totals for each statement and function, most exclusive
+     * time first.
+     *
+     * @param out    the stream to print to
+     * @param source the name of the program profiled
+     */
+    public void report(PrintStream out, String source) {
+        IdentityHashMap<Object, Node> totals = new IdentityHashMap<Object, Node>();
+        for (ThreadProfile profile : this.profiles) {
+            synchronized (profile) {
+                sum(profile.root, totals);
+            }
+        }
+        List<Node> rows = new ArrayList<Node>(totals.values());
+        rows.sort((a, b) -> Long.compare(b.exclusiveNanos, a.exclusiveNanos));
+
+        out.printf("==== Profile of %s (%.1f ms) ====%n", source, (System.nanoTime() - this.startNanos) / 1e6);
+        out.printf("%10s %11s %11s %12s %12s  %-9s %s%n",
+                   "calls", "incl ms", "excl ms", "incl KB", "excl KB", "line:col", "statement");
+        for (Node row : rows) {
+            out.printf("%10d %11.3f %11.3f %12d %12d  %-9s %s%n", row.calls, row.inclusiveNanos / 1e6,
+                       row.exclusiveNanos / 1e6, row.inclusiveBytes / 1024, row.exclusiveBytes / 1024,
+                       row.stmt.getLine() + ":" + row.stmt.getColumn(), label(row));
+        }
+    }
+
+    /**
+     * Writes the call paths in collapsed-stack format, one line per path
+     * giving its exclusive time in microseconds.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCollapsed(Path file) throws IOException {
+        ArrayList<String> lines = new ArrayList<String>();
+        for (ThreadProfile profile : this.profiles) {
+            synchronized (profile) {
+                for (Node child : profile.root.children.values()) {
+                    collapse(child, "", lines);
+                }
+            }
+        }
+        Files.write(file, lines);
+    }
+
+
+    // ============================ Private Helpers ==========================
+    /**
+     * Records the start of a statement or call on this thread.
+     *
+     * @param key  what the node is keyed by (see Node)
+     * @param stmt the statement, or the FunctionDecl for a call
+     * @param call true for a call of a function
+     */
+    private void enter(Object key, Statement stmt, boolean call) {
+        ThreadProfile profile = this.current.get();
+        synchronized (profile) {
+            int depth = profile.depth;
+            if (depth == profile.stack.length) {
+                profile.stack = Arrays.copyOf(profile.stack, 2 * depth);
+                profile.startNanos = Arrays.copyOf(profile.startNanos, 2 * depth);
+                profile.startBytes = Arrays.copyOf(profile.startBytes, 2 * depth);
+                profile.childNanos = Arrays.copyOf(profile.childNanos, 2 * depth);
+                profile.childBytes = Arrays.copyOf(profile.childBytes, 2 * depth);
+            }
+            Node parent = (depth == 0) ? profile.root : profile.stack[depth - 1];
+            Node node = parent.children.get(key);
+            if (node == null) {
+                node = new Node(key, stmt, call);
+                parent.children.put(key, node);
+            }
+            int[] calls = profile.activeCalls.get(key);
+            if (calls == null) {
+                calls = new int[1];
+                profile.activeCalls.put(key, calls);
+            }
+            calls[0]++;
+
+            profile.stack[depth] = node;
+            profile.childNanos[depth] = 0;
+            profile.childBytes[depth] = 0;
+            profile.depth++;
+        }
+        profile.startBytes[profile.depth - 1] = this.allocatedBytes();
+        profile.startNanos[profile.depth - 1] = System.nanoTime();
+    }
+
+    private long allocatedBytes() {
+        return this.threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void sum(Node node, IdentityHashMap<Object, Node> totals) {
+        for (Node child : node.children.values()) {
+            Node total = totals.computeIfAbsent(child.key, key -> new Node(key, child.stmt, child.call));
+            total.calls += child.calls;
+            total.inclusiveNanos += child.inclusiveNanos;
+            total.exclusiveNanos += child.exclusiveNanos;
+            total.inclusiveBytes += child.inclusiveBytes;
+            total.exclusiveBytes += child.exclusiveBytes;
+            sum(child, totals);
+        }
+    }
+
+    private static void collapse(Node node, String path, List<String> lines) {
+        String frames = path + label(node).replace(';', ',') + " (line " + node.stmt.getLine() + ")";
+        long micros = node.exclusiveNanos / 1000;
+        if (micros > 0) {
+            lines.add(frames + " " + micros);
+        }
+        for (Node child : node.children.values()) {
+            collapse(child, frames + ";", lines);
+        }
+    }
+
+    /**
+     * Names a node for the report: "func NAME" for calls of a function, or
+     * the start of a top-level statement's text.
+     *
+     * @param node the node to name
+     * @return a one-line name for it
+     */
+    private static String label(Node node) {
+        if (node.call) {
+            return "func " + ((FunctionDecl) node.stmt).getName();
+        }
+        String text = node.stmt.toString().strip().replaceAll("\\s+", " ");
+        return (text.length() <= 40) ? text : text.substring(0, 37) + "...";
+    }
+}
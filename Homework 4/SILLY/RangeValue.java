@@ -0,0 +1,87 @@
+import java.util.AbstractList;
+
+/**
+ * Class that represents a lazy range of numbers, as produced by range.
+ * It behaves as a list, but each element is computed when it is accessed
+ * instead of being stored.
+ * 
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class RangeValue extends ListValue {
+
+    // ================================ Fields ================================
+    private final Numbers numbers;
+
+
+    // ============================= Constructors ============================
+    /**
+     * Constructs the range start, start+step, ... stopping before end.
+     * 
+     * @param start the first number
+     * @param end   the bound that is never reached
+     * @param step  the (non-zero) difference between consecutive numbers
+     * @throws Exception if the range has more elements than a list can hold
+     */
+    public RangeValue(double start, double end, double step) throws Exception {
+        this(new Numbers(start, step, countOf(start, end, step)));
+    }
+
+    private RangeValue(Numbers numbers) {
+        super(numbers);
+        this.numbers = numbers;
+    }
+
+    /**
+     * Constructs the range of count numbers start, start+step, ...
+     * 
+     * @param start the first number
+     * @param step  the difference between consecutive numbers
+     * @param count the number of elements
+     * @return the range
+     */
+    public static RangeValue withCount(double start, double step, int count) {
+        return new RangeValue(new Numbers(start, step, count));
+    }
+
+    public double getStart()    { return this.numbers.start; }
+    public double getStep()     { return this.numbers.step; }
+    public int getCount()       { return this.numbers.count; }
+
+
+    // ============================ Private Helpers ==========================
+    private static int countOf(double start, double end, double step) throws Exception {
+        double steps = Math.ceil((end - start) / step);
+        if (steps > Integer.MAX_VALUE) {
+            throw new Exception("RUNTIME ERROR: range too large.");
+        }
+        return (steps > 0) ? (int) steps : 0;
+    }
+
+    /**
+     * Read-only list view that computes each number on demand.
+     */
+    private static class Numbers extends AbstractList<DataValue> {
+        private final double start, step;
+        private final int    count;
+
+        Numbers(double start, double step, int count) {
+            this.start = start;
+            this.step = step;
+            this.count = count;
+        }
+
+        @Override
+        public DataValue get(int index) {
+            if (index < 0 || index >= this.count) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return NumberValue.valueOf(this.start + index * this.step);
+        }
+
+        @Override
+        public int size() {
+            return this.count;
+        }
+    }
+}
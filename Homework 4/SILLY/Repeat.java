@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.util.Set;
+
 /**
  * Derived class that represents a repeat statement in the SILLY language.
  * 
@@ -27,6 +30,17 @@ public class Repeat extends Statement {
         this.loopBody = new Compound(input);
     }
 
+    /**
+     * Reads a repeat statement written by AstEncoder.
+     *
+     * @param in the decoder to read from
+     * @throws IOException if the data is not a valid repeat statement
+     */
+    public Repeat(AstDecoder in) throws IOException {
+        this.iterationExpr = new Expression(in);
+        this.loopBody = in.readCompound();
+    }
+
 
     // ======================= Core Methods =======================
     /**
@@ -36,9 +50,9 @@ public class Repeat extends Statement {
      * @throws Exception if evaluation fails or count is invalid
      */
     @Override
-    public void execute() throws Exception {
-        int iterations = validateAndGetIterationCount();
-        executeLoop(iterations);
+    public void execute(InterpreterContext context) throws Exception {
+        int iterations = validateAndGetIterationCount(context);
+        executeLoop(context, iterations);
     }
 
 
@@ -50,8 +64,19 @@ public class Repeat extends Statement {
      * @return Number of times to execute the loop
      * @throws Exception if count is not a valid non-negative integer
      */
-    private int validateAndGetIterationCount() throws Exception {
-        DataValue countValue = this.iterationExpr.evaluate();
+    private int validateAndGetIterationCount(InterpreterContext context) throws Exception {
+        return toIterationCount(this.iterationExpr.evaluate(context));
+    }
+
+    /**
+     * Converts an evaluated count to an iteration count (shared with
+     * ParallelRepeat).
+     *
+     * @param countValue the value of the iteration expression
+     * @return Number of times to execute the loop
+     * @throws Exception if count is not a valid non-negative integer
+     */
+    static int toIterationCount(DataValue countValue) throws Exception {
         validateNumericType(countValue);
         Double count = (Double) countValue.getValue();
         validateIntegerValue(count);
@@ -65,10 +90,10 @@ public class Repeat extends Statement {
      * @param count Number of iterations to execute
      * @throws Exception if body execution fails
      */
-    private void executeLoop(int count) throws Exception {
+    private void executeLoop(InterpreterContext context, int count) throws Exception {
         for (int i = 0; i < count; i++) {
             try {
-                this.loopBody.execute();
+                this.loopBody.execute(context);
             } catch (Return.ReturnException re) {
                 throw re;
             }
@@ -81,7 +106,7 @@ public class Repeat extends Statement {
      * @param value DataValue to validate
      * @throws Exception if value is not numeric
      */
-    private void validateNumericType(DataValue value) throws Exception {
+    private static void validateNumericType(DataValue value) throws Exception {
         if (value.getType() != DataValue.Type.NUMBER) {
             throw new Exception(
                     "RUNTIME ERROR: repeat statement requires a number.");
@@ -94,7 +119,7 @@ public class Repeat extends Statement {
      * @param value Value to validate
      * @throws Exception if value is not a non-negative integer
      */
-    private void validateIntegerValue(Double value) throws Exception {
+    private static void validateIntegerValue(Double value) throws Exception {
         if (value % 1 != 0) {
             throw new Exception(
                     "RUNTIME ERROR: repeat statement requires an integer.");
@@ -106,6 +131,29 @@ public class Repeat extends Statement {
     }
 
 
+    @Override
+    public boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        return this.iterationExpr.isPure(context, visiting) && this.loopBody.isPure(context, visiting);
+    }
+
+    @Override
+    public boolean yields() {
+        return this.loopBody.yields();
+    }
+
+    @Override
+    void resolveScopes(Set<Token> declared) {
+        this.loopBody.resolveScopes(declared);
+    }
+
+    @Override
+    public void encode(AstEncoder out) throws IOException {
+        out.writeByte(AstEncoder.REPEAT);
+        this.iterationExpr.encode(out);
+        out.writeStatement(this.loopBody);
+    }
+
+
     // ==================== String Generation ====================
     @Override
     public String toString() {
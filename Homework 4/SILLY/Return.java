@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.util.Set;
+
 /**
  * Derived class that represents a return statement in the SILLY language.
  *
@@ -11,16 +14,24 @@ public class Return extends Statement {
 
     // ========== Exception Class ==========
     public static class ReturnException extends Exception {
-        private final DataValue returnValue;
+        private DataValue returnValue;
 
         public ReturnException(DataValue value) {
-            super("RETURN");
+            super("RETURN", null, false, false);    // control flow only: no stack trace
             this.returnValue = value;
         }
 
+        ReturnException() {
+            this(null);
+        }
+
         public DataValue getReturnValue() {
             return returnValue;
         }
+
+        void setReturnValue(DataValue value) {
+            this.returnValue = value;
+        }
     }
 
     /**
@@ -35,10 +46,31 @@ public class Return extends Statement {
         this.returnExpr = new Expression(input);
     }
 
+    /**
+     * Reads a return statement written by AstEncoder.
+     *
+     * @param in the decoder to read from
+     * @throws IOException if the data is not a valid return statement
+     */
+    public Return(AstDecoder in) throws IOException {
+        this.returnExpr = new Expression(in);
+    }
+
     // ============================= Core Methods ============================
     @Override
-    public void execute() throws Exception {
-        throw new ReturnException(this.returnExpr.evaluate());
+    public void execute(InterpreterContext context) throws Exception {
+        throw context.getMemory().returnSignal(this.returnExpr.evaluate(context));
+    }
+
+    @Override
+    public boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        return this.returnExpr.isPure(context, visiting);
+    }
+
+    @Override
+    public void encode(AstEncoder out) throws IOException {
+        out.writeByte(AstEncoder.RETURN);
+        this.returnExpr.encode(out);
     }
 
     /**
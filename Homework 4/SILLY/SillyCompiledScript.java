@@ -0,0 +1,35 @@
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+/**
+ * A SILLY script that has been parsed once and can be evaluated repeatedly.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class SillyCompiledScript extends CompiledScript {
+
+    // ================================ Fields ================================
+    private final SillyScriptEngine engine;
+    private final SillyProgram      program;
+
+
+    // ============================= Constructors ============================
+    public SillyCompiledScript(SillyScriptEngine engine, SillyProgram program) {
+        this.engine = engine;
+        this.program = program;
+    }
+
+
+    // ============================= Core Methods ============================
+    @Override
+    public Object eval(ScriptContext context) throws ScriptException {
+        return this.engine.run(this.program, context);
+    }
+
+    @Override
+    public ScriptEngine getEngine()         { return this.engine; }
+    public SillyProgram getProgram()        { return this.program; }
+}
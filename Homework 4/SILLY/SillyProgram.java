@@ -0,0 +1,162 @@
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that represents a parsed SILLY program which can be run many times.
+ * A program is lexed and parsed once by compile; the resulting statement
+ * tree is never modified, so one SillyProgram may be run concurrently from
+ * several threads, each run getting its own fresh memory space.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public final class SillyProgram {
+
+    // ================================ Fields ================================
+    private final List<Statement> statements;
+
+
+    // ============================= Constructors ============================
+    private SillyProgram(List<Statement> statements) {
+        this.statements = Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * Parses the program stored in a file, without reading or writing its
+     * .sillyc cache (an embedding application may not expect files to be
+     * created next to its scripts); see compile(Path, boolean) to use it.
+     *
+     * @param file path to the source file
+     * @return the parsed program
+     * @throws Exception if the file cannot be read or the program is malformed
+     */
+    public static SillyProgram compile(Path file) throws Exception {
+        return compile(file, false);
+    }
+
+    /**
+     * Parses the program stored in a file. With useCache, the program is
+     * loaded from the file's .sillyc cache if the source has not changed
+     * since it was cached, and cached otherwise (see AstCache); without it,
+     * the cache is neither read nor written.
+     *
+     * @param file     path to the source file
+     * @param useCache true to use the AST cache
+     * @return the parsed program
+     * @throws Exception if the file cannot be read or the program is malformed
+     */
+    public static SillyProgram compile(Path file, boolean useCache) throws Exception {
+        byte[] text = Files.readAllBytes(file);
+        List<Statement> cached = useCache ? AstCache.load(file, text) : null;
+        if (cached != null) {
+            return new SillyProgram(cached);
+        }
+        SillyProgram program = compile(new TokenStream(
+                new InputStreamReader(new ByteArrayInputStream(text), Charset.defaultCharset())));
+        if (useCache) {
+            AstCache.store(file, text, program.statements);
+        }
+        return program;
+    }
+
+    /**
+     * Parses a program from its source text.
+     *
+     * @param source the text of the program
+     * @return the parsed program
+     * @throws Exception if the program is malformed
+     */
+    public static SillyProgram compile(String source) throws Exception {
+        return compile(new TokenStream(new StringReader(source)));
+    }
+
+    /**
+     * Parses all of the statements remaining in a token stream.
+     *
+     * @param input TokenStream to read from
+     * @return the parsed program
+     * @throws Exception if the program is malformed
+     */
+    public static SillyProgram compile(TokenStream input) throws Exception {
+        ArrayList<Statement> parsed = new ArrayList<Statement>();
+        while (input.hasNext()) {
+            parsed.add(Statement.getStatement(input));
+        }
+        return new SillyProgram(parsed);
+    }
+
+
+    // ============================= Core Methods ============================
+    public List<Statement> getStatements()      { return this.statements; }
+
+    /**
+     * Runs the program with output going to standard output.
+     *
+     * @param bindings global variables to define before the program starts
+     * @return the context the program ran in (for reading back globals)
+     * @throws Exception if the program fails at runtime
+     */
+    public InterpreterContext run(Map<String, DataValue> bindings) throws Exception {
+        return this.run(bindings, new OutputSink(System.out, OutputSink.FlushPolicy.BUFFER));
+    }
+
+    /**
+     * Runs the program against a fresh memory space. Unlike the interactive
+     * interpreter, the first runtime error stops the run and is rethrown.
+     *
+     * @param bindings global variables to define before the program starts
+     * @param output   the sink that receives the program's output
+     * @return the context the program ran in (for reading back globals)
+     * @throws Exception if the program fails at runtime
+     */
+    public InterpreterContext run(Map<String, DataValue> bindings, OutputSink output) throws Exception {
+        InterpreterContext context = new InterpreterContext(output);
+        try {
+            bindGlobals(context, bindings);
+            for (Statement stmt : this.statements) {
+                stmt.execute(context);
+            }
+        } catch (Return.ReturnException re) {
+            throw new Exception("RUNTIME ERROR: Return statement outside of function");
+        } finally {
+            output.flush();
+        }
+        return context;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Statement stmt : this.statements) {
+            sb.append(stmt).append("\n");
+        }
+        return sb.toString();
+    }
+
+
+    // ============================ Private Helpers ==========================
+    private static void bindGlobals(InterpreterContext context, Map<String, DataValue> bindings)
+            throws Exception {
+        for (Map.Entry<String, DataValue> binding : bindings.entrySet()) {
+            String name = binding.getKey();
+            if (name == null || name.isBlank()) {       // a Token cannot be typed without a first character
+                throw new Exception("RUNTIME ERROR: Illegal global variable name ("
+                        + ((name == null) ? "null" : "\"" + name + "\"") + ")");
+            }
+            Token variable = new Token(name);
+            if (variable.getType() != Token.Type.IDENTIFIER) {
+                throw new Exception("RUNTIME ERROR: Illegal global variable name (" + variable + ")");
+            }
+            context.getMemory().declareVariable(variable);
+            context.getMemory().storeValue(variable, binding.getValue());
+        }
+    }
+}
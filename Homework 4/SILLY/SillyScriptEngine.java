@@ -0,0 +1,178 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+
+/**
+ * JSR-223 script engine for the SILLY language. Global and engine scope
+ * bindings become SILLY global variables before a script runs, and the
+ * final values of those globals are copied back into the bindings after.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class SillyScriptEngine extends AbstractScriptEngine implements Compilable {
+
+    // ================================ Fields ================================
+    private final SillyScriptEngineFactory factory;
+
+
+    // ============================= Constructors ============================
+    public SillyScriptEngine(SillyScriptEngineFactory factory) {
+        this.factory = factory;
+    }
+
+    public SillyScriptEngine() {
+        this(new SillyScriptEngineFactory());
+    }
+
+
+    // ============================= Core Methods ============================
+    @Override
+    public Object eval(String script, ScriptContext context) throws ScriptException {
+        return this.compile(script).eval(context);
+    }
+
+    @Override
+    public Object eval(Reader reader, ScriptContext context) throws ScriptException {
+        return this.eval(readScript(reader), context);
+    }
+
+    @Override
+    public CompiledScript compile(String script) throws ScriptException {
+        try {
+            return new SillyCompiledScript(this, this.factory.compile(script));
+        } catch (Exception e) {
+            throw new ScriptException(e.getMessage());
+        }
+    }
+
+    @Override
+    public CompiledScript compile(Reader script) throws ScriptException {
+        return this.compile(readScript(script));
+    }
+
+    @Override
+    public Bindings createBindings()            { return new SimpleBindings(); }
+    @Override
+    public ScriptEngineFactory getFactory()     { return this.factory; }
+
+
+    // ========================== Value Conversion ==========================
+    /**
+     * Converts a Java object from a bindings map into a SILLY value.
+     *
+     * @param obj the object to convert
+     * @return the equivalent DataValue
+     * @throws ScriptException if the object has no SILLY equivalent
+     */
+    public static DataValue toSilly(Object obj) throws ScriptException {
+        if (obj instanceof DataValue) {
+            return (DataValue) obj;
+        } else if (obj instanceof Number) {
+            return NumberValue.valueOf(((Number) obj).doubleValue());
+        } else if (obj instanceof Boolean) {
+            return BooleanValue.valueOf((Boolean) obj);
+        } else if (obj instanceof Character) {
+            return CharValue.valueOf((Character) obj);
+        } else if (obj instanceof CharSequence) {
+            return StringValue.valueOf(obj.toString());
+        } else if (obj instanceof List) {
+            ArrayList<DataValue> vals = new ArrayList<DataValue>();
+            for (Object element : (List<?>) obj) {
+                vals.add(toSilly(element));
+            }
+            return ListValue.valueOf(vals);
+        }
+        throw new ScriptException("Cannot convert " + obj + " to a SILLY value");
+    }
+
+    /**
+     * Converts a SILLY value into the natural Java object (Double, Boolean,
+     * Character, String or List).
+     *
+     * @param val the value to convert
+     * @return the equivalent Java object
+     */
+    @SuppressWarnings("unchecked")
+    public static Object toJava(DataValue val) {
+        if (val == null) {
+            return null;
+        } else if (val.getType() == DataValue.Type.STRING) {
+            return val.toString();
+        } else if (val.getType() == DataValue.Type.LIST) {
+            List<Object> list = new ArrayList<Object>();
+            for (DataValue element : (List<DataValue>) val.getValue()) {
+                list.add(toJava(element));
+            }
+            return list;
+        }
+        return val.getValue();
+    }
+
+
+    // ============================ Package Helpers ==========================
+    /**
+     * Runs a compiled program against the bindings and writer of a script context.
+     *
+     * @param program the program to run
+     * @param context the script context supplying globals and output
+     * @return always null; SILLY programs do not produce a value
+     * @throws ScriptException if the program fails
+     */
+    Object run(SillyProgram program, ScriptContext context) throws ScriptException {
+        Map<String, DataValue> globals = new HashMap<String, DataValue>();
+        collectGlobals(context.getBindings(ScriptContext.GLOBAL_SCOPE), globals);
+        collectGlobals(context.getBindings(ScriptContext.ENGINE_SCOPE), globals);
+
+        OutputSink output = new OutputSink(context.getWriter(), OutputSink.FlushPolicy.BUFFER,
+                OutputSink.DEFAULT_BUFFER_SIZE);
+        InterpreterContext result;
+        try {
+            result = program.run(globals, output);
+        } catch (Exception e) {
+            throw new ScriptException(e.getMessage());
+        }
+
+        Bindings engineScope = context.getBindings(ScriptContext.ENGINE_SCOPE);
+        for (String name : globals.keySet()) {
+            engineScope.put(name, toJava(result.getMemory().lookupValue(new Token(name))));
+        }
+        return null;
+    }
+
+
+    // ============================ Private Helpers ==========================
+    private static void collectGlobals(Bindings bindings, Map<String, DataValue> globals)
+            throws ScriptException {
+        if (bindings == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            if (new Token(binding.getKey()).getType() == Token.Type.IDENTIFIER) {
+                globals.put(binding.getKey(), toSilly(binding.getValue()));
+            }
+        }
+    }
+
+    private static String readScript(Reader reader) throws ScriptException {
+        StringWriter text = new StringWriter();
+        try {
+            reader.transferTo(text);
+        } catch (IOException e) {
+            throw new ScriptException(e);
+        }
+        return text.toString();
+    }
+}
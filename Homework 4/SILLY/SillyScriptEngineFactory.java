@@ -0,0 +1,107 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+
+/**
+ * Factory that makes the SILLY interpreter available through javax.script.
+ * Engines created by one factory share a cache of compiled programs keyed
+ * by script text, so repeated evaluations of the same script are parsed once.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class SillyScriptEngineFactory implements ScriptEngineFactory {
+
+    // ================================ Fields ================================
+    public static final String  LANGUAGE_NAME    = "SILLY";
+    public static final String  LANGUAGE_VERSION = "4";
+    public static final int     CACHE_SIZE       = 256;
+
+    private static final List<String> NAMES      = Collections.unmodifiableList(Arrays.asList("silly", "SILLY"));
+    private static final List<String> EXTENSIONS = Collections.unmodifiableList(Arrays.asList("silly"));
+    private static final List<String> MIME_TYPES = Collections.unmodifiableList(Arrays.asList("text/x-silly"));
+
+    private final Map<String, SillyProgram> compiled = Collections.synchronizedMap(
+            new LinkedHashMap<String, SillyProgram>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SillyProgram> eldest) {
+                    return this.size() > CACHE_SIZE;
+                }
+            });
+
+
+    // ============================ Engine Creation ==========================
+    @Override
+    public ScriptEngine getScriptEngine() {
+        return new SillyScriptEngine(this);
+    }
+
+    /**
+     * Returns the compiled form of a script, parsing it only on a cache miss.
+     *
+     * @param script the text of the script
+     * @return the parsed program
+     * @throws Exception if the script is malformed
+     */
+    public SillyProgram compile(String script) throws Exception {
+        SillyProgram program = this.compiled.get(script);
+        if (program == null) {
+            program = SillyProgram.compile(script);
+            this.compiled.put(script, program);
+        }
+        return program;
+    }
+
+
+    // ============================== Metadata ===============================
+    @Override
+    public String getEngineName()           { return "SILLY Interpreter"; }
+    @Override
+    public String getEngineVersion()        { return LANGUAGE_VERSION; }
+    @Override
+    public List<String> getExtensions()     { return EXTENSIONS; }
+    @Override
+    public List<String> getMimeTypes()      { return MIME_TYPES; }
+    @Override
+    public List<String> getNames()          { return NAMES; }
+    @Override
+    public String getLanguageName()         { return LANGUAGE_NAME; }
+    @Override
+    public String getLanguageVersion()      { return LANGUAGE_VERSION; }
+
+    @Override
+    public Object getParameter(String key) {
+        switch (key) {
+            case ScriptEngine.ENGINE:           return this.getEngineName();
+            case ScriptEngine.ENGINE_VERSION:   return this.getEngineVersion();
+            case ScriptEngine.NAME:             return NAMES.get(0);
+            case ScriptEngine.LANGUAGE:         return this.getLanguageName();
+            case ScriptEngine.LANGUAGE_VERSION: return this.getLanguageVersion();
+            case "THREADING":                   return "MULTITHREADED";
+            default:                            return null;
+        }
+    }
+
+    @Override
+    public String getMethodCallSyntax(String obj, String m, String... args) {
+        StringBuilder sb = new StringBuilder("(").append(m);
+        for (String arg : args) {
+            sb.append(" ").append(arg);
+        }
+        return sb.append(")").toString();
+    }
+
+    @Override
+    public String getOutputStatement(String toDisplay) {
+        return "print \"" + toDisplay + "\"";
+    }
+
+    @Override
+    public String getProgram(String... statements) {
+        return String.join("\n", statements);
+    }
+}
@@ -0,0 +1,202 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Long-running server that executes SILLY programs sent over a local socket.
+ * A client writes the program text and closes its half of the connection;
+ * the program's output (or error) is streamed back on the same connection.
+ * Each job runs on its own (virtual, when available) thread with its own
+ * memory space, and its output is flushed line by line. Connections wait
+ * in a bounded admission queue, and clients are turned away when it is
+ * full or when the server is closed.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class SillyServer {
+
+    // ================================ Fields ================================
+    public static final int DEFAULT_QUEUE_SIZE = 256;
+    public static final int DEFAULT_MAX_JOBS   = 1024;
+
+    private final ServerSocketChannel           listener;
+    private final BlockingQueue<SocketChannel>  admissions;
+    private final Semaphore                     running;
+    private final ExecutorService               jobs;
+    private volatile Thread                     dispatcher;     // null until serve is called
+    private volatile boolean                    closed;
+
+
+    // ============================= Constructors ============================
+    /**
+     * Opens a server on a TCP port of the loopback interface or, for an
+     * address of the form unix:PATH, on a Unix domain socket.
+     *
+     * @param address   a port number or unix:PATH
+     * @param queueSize the number of connections that may wait to be run
+     * @param maxJobs   the number of programs that may run at once
+     * @throws IOException if the socket cannot be opened
+     */
+    public SillyServer(String address, int queueSize, int maxJobs) throws IOException {
+        SocketAddress local;
+        if (address.startsWith("unix:")) {
+            Path path = Path.of(address.substring("unix:".length()));
+            Files.deleteIfExists(path);
+            local = UnixDomainSocketAddress.of(path);
+            this.listener = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            local = new InetSocketAddress("localhost", Integer.parseInt(address));
+            this.listener = ServerSocketChannel.open();
+        }
+        this.listener.bind(local);
+        this.admissions = new ArrayBlockingQueue<SocketChannel>(queueSize);
+        this.running = new Semaphore(maxJobs);
+        this.jobs = TaskValue.newPerTaskExecutor();
+    }
+
+    public SillyServer(String address) throws IOException {
+        this(address, DEFAULT_QUEUE_SIZE, DEFAULT_MAX_JOBS);
+    }
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Accepts connections until the server is closed. Accepted connections
+     * are queued for a dispatcher thread that starts jobs as capacity allows.
+     *
+     * @throws IOException if the listening socket fails
+     */
+    public void serve() throws IOException {
+        this.dispatcher = new Thread(this::dispatch, "silly-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+
+        try {
+            while (this.listener.isOpen()) {
+                SocketChannel client = this.listener.accept();
+                if (!this.admissions.offer(client)) {
+                    reject(client, "ERROR: server busy");
+                } else if (this.closed) {
+                    this.turnAwayWaiting();         // close may have emptied the queue already
+                }
+            }
+        } catch (ClosedChannelException e) {
+            if (!this.closed) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections and stops the dispatcher. Connections
+     * still waiting to be run are told the server is shutting down and
+     * closed; running jobs are left to finish.
+     *
+     * @throws IOException if the listening socket cannot be closed
+     */
+    public void close() throws IOException {
+        this.closed = true;
+        this.listener.close();
+        Thread dispatch = this.dispatcher;
+        if (dispatch != null) {
+            dispatch.interrupt();
+        }
+        this.turnAwayWaiting();
+        this.jobs.shutdown();
+    }
+
+
+    // ============================ Private Helpers ==========================
+    private void dispatch() {
+        try {
+            while (!this.closed) {
+                SocketChannel client = this.admissions.take();
+                try {
+                    this.running.acquire();
+                } catch (InterruptedException e) {
+                    reject(client, "ERROR: server shutting down");
+                    throw e;
+                }
+                try {
+                    this.jobs.execute(() -> {
+                        try {
+                            runJob(client);
+                        } finally {
+                            this.running.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {      // closed after the client was taken
+                    this.running.release();
+                    reject(client, "ERROR: server shutting down");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads a program from a connection, runs it in a fresh context and
+     * streams its output back.
+     *
+     * @param client the connection to serve
+     */
+    private static void runJob(SocketChannel client) {
+        try (SocketChannel channel = client) {
+            InputStream in = Channels.newInputStream(channel);
+            String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            OutputSink output = new OutputSink(Channels.newOutputStream(channel),
+                    OutputSink.FlushPolicy.LINE);
+            try {
+                SillyProgram.compile(source).run(Collections.emptyMap(), output);
+            } catch (Exception e) {
+                output.println(e.toString());
+                output.flush();
+            }
+        } catch (IOException e) {
+            // the client went away; there is no one left to report to
+        }
+    }
+
+    /**
+     * Closes every connection still waiting in the admission queue.
+     */
+    private void turnAwayWaiting() {
+        SocketChannel client;
+        while ((client = this.admissions.poll()) != null) {
+            reject(client, "ERROR: server shutting down");
+        }
+    }
+
+    /**
+     * Sends a client a one-line error instead of running its program, and
+     * closes the connection.
+     *
+     * @param client  the connection to turn away
+     * @param message the error to send
+     */
+    private static void reject(SocketChannel client, String message) {
+        try (SocketChannel channel = client) {
+            channel.write(StandardCharsets.UTF_8.encode(message + System.lineSeparator()));
+        } catch (IOException e) {
+            // the client went away; there is no one left to report to
+        }
+    }
+}
@@ -0,0 +1,134 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Class that saves the state built up by a SILLY session (its declared
+ * functions and global variables) to a binary snapshot file, and restores
+ * it later without parsing or executing the statements that built it.
+ * Function bodies are stored as encoded ASTs (see AstEncoder), and a
+ * snapshot is read straight from a memory-mapped file.
+ *
+ * In the interactive interpreter, ":save FILE" and ":load FILE" do the same.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class Snapshot {
+
+    // ================================ Fields ================================
+    private static final int MAGIC = 0x534C5353;       // "SLSS"
+    private static final int FORMAT_VERSION = 4;       // layout of the snapshot itself
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Writes the functions and globals of a context to a snapshot file. The
+     * file is replaced only once the whole snapshot has been written.
+     *
+     * @param context the context whose state is saved
+     * @param file    the snapshot file to write
+     * @throws Exception if a global holds a value that cannot be saved
+     *                   (a task, channel or generator sequence) or the file
+     *                   cannot be written
+     */
+    public static void save(InterpreterContext context, Path file) throws Exception {
+        try {
+            write(context.getMemory(), file);
+        } catch (IOException e) {
+            throw new Exception("RUNTIME ERROR: Cannot save snapshot " + file + " (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Restores the functions and globals saved in a snapshot file into a
+     * context. Functions and globals with the same names are replaced.
+     *
+     * @param context the context to restore into (at the top level)
+     * @param file    the snapshot file to read
+     * @throws Exception if the file cannot be read or is not a snapshot
+     */
+    public static void load(InterpreterContext context, Path file) throws Exception {
+        try {
+            read(context.getMemory(), file);
+        } catch (IOException | RuntimeException e) {
+            throw new Exception("RUNTIME ERROR: Cannot load snapshot " + file + " (" + e + ")");
+        }
+    }
+
+
+    // ============================ Private Helpers ==========================
+    private static void write(MemorySpace memory, Path file) throws IOException {
+        AstEncoder out = new AstEncoder();
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(AstEncoder.FORMAT_VERSION);
+
+        ArrayList<FunctionDecl> functions = new ArrayList<FunctionDecl>(memory.getFunctions().values());
+        out.writeInt(functions.size());
+        for (FunctionDecl function : functions) {
+            out.writeStatement(function);
+        }
+
+        ArrayList<GlobalCell> globals = memory.getGlobals();
+        out.writeInt(globals.size());
+        for (GlobalCell cell : globals) {
+            out.writeToken(cell.getName());
+            out.writeValue(cell.getValue());
+        }
+
+        // written beside the target first, so a failed save leaves the old snapshot intact
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(temp, out.toByteArray());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void read(MemorySpace memory, Path file) throws Exception {
+        AstDecoder in = new AstDecoder(map(file));
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+                || in.readInt() != AstEncoder.FORMAT_VERSION) {
+            throw new IOException("not a SILLY snapshot");
+        }
+
+        int functionCount = in.readInt();
+        for (int i = 0; i < functionCount; i++) {
+            Statement stmt = in.readStatement();
+            if (!(stmt instanceof FunctionDecl)) {
+                throw new IOException("Corrupt snapshot (function expected)");
+            }
+            memory.storeFunction(((FunctionDecl) stmt).getName().toString(), (FunctionDecl) stmt);
+        }
+
+        int globalCount = in.readInt();
+        for (int i = 0; i < globalCount; i++) {
+            Token variable = in.readToken();
+            memory.declareVariable(variable);
+            memory.storeValue(variable, in.readValue());
+        }
+    }
+
+    /**
+     * Maps a whole file into memory for reading.
+     *
+     * @param file the file to map
+     * @return a read-only buffer over the file's contents
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return buffer.order(ByteOrder.BIG_ENDIAN);
+        }
+    }
+}
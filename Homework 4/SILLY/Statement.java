@@ -1,3 +1,7 @@
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Abstract class for representing a statement in the SILLY language.
  * 
@@ -6,13 +10,107 @@
  */
 public abstract class Statement {
 
+    private int line;       // source position of the statement's first token, or 0 if unknown
+    private int column;
+
+    public int getLine()        { return this.line; }
+    public int getColumn()      { return this.column; }
+
+    /**
+     * Records where in the source the statement starts.
+     * 
+     * @param line   the line of the statement's first token
+     * @param column the column of the statement's first token
+     */
+    void setPosition(int line, int column) {
+        this.line = line;
+        this.column = column;
+    }
+
     /**
      * Abstract method to execute the statement's behavior.
      * Each derived class must implement their specific execution logic.
      * 
+     * @param context the interpreter state (memory and output) to execute against
      * @throws Exception if execution fails due to syntax or runtime errors
      */
-    public abstract void execute() throws Exception;
+    public abstract void execute(InterpreterContext context) throws Exception;
+
+    /**
+     * Abstract method to determine whether executing the statement can only
+     * affect variables of the function it runs in (i.e., it prints nothing,
+     * declares no functions and calls only pure functions). Every name a
+     * function assigns is its own local, even one that a global of the same
+     * name was read through before (see MemorySpace). Pure functions may be
+     * run in parallel.
+     * 
+     * @param context  the interpreter state used to resolve called functions
+     * @param visiting functions already being checked (assumed pure)
+     * @return true if the statement is free of outside effects
+     */
+    public abstract boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting);
+
+    /**
+     * Extends a set of local names with the variables a statement declares
+     * in the scope of its body (e.g., a loop variable).
+     * 
+     * @param locals the names already local
+     * @param names  the names to add (null entries are skipped)
+     * @return a new set holding both
+     */
+    static Set<Token> withLocals(Set<Token> locals, Token... names) {
+        Set<Token> extended = new HashSet<Token>(locals);
+        for (Token name : names) {
+            if (name != null) {
+                extended.add(name);
+            }
+        }
+        return extended;
+    }
+
+    /**
+     * Determines whether the statement contains a yield (outside of any
+     * nested function declaration), making an enclosing function a generator.
+     * 
+     * @return true if executing the statement may yield a value
+     */
+    public boolean yields() {
+        return false;
+    }
+
+    /**
+     * Writes the statement in binary form (see AstEncoder), so that it can
+     * be read back by AstDecoder without being parsed again.
+     * 
+     * @param out the encoder to write to
+     * @throws IOException if the statement cannot be written
+     */
+    public abstract void encode(AstEncoder out) throws IOException;
+
+    /**
+     * Identifies the variable the statement may declare in the scope it runs
+     * in (e.g., the target of an assignment). Once the statement completes,
+     * the variable is declared. Blocks whose statements declare nothing new
+     * can run without a scope of their own.
+     * 
+     * @return the variable possibly declared, or null if none
+     */
+    public Token boundVariable() {
+        return null;
+    }
+
+    /**
+     * Decides, for each block in the statement, whether it can run without
+     * a scope of its own (see Compound). Statements holding a block call
+     * this from their constructors, so the decision is made once, before
+     * the tree is run or shared; an enclosing statement that knows more
+     * names calls it again.
+     * 
+     * @param declared the names certain to be declared in the function
+     *                 frame where the statement runs
+     */
+    void resolveScopes(Set<Token> declared) {
+    }
 
     /**
      * Abstract method to provide string representation of the statement.
@@ -32,14 +130,22 @@ public abstract class Statement {
      */
     public static Statement getStatement(TokenStream input) throws Exception {
         Token first = input.lookAhead();
-        
+        Statement stmt = parseStatement(first, input);
+        stmt.setPosition(first.getLine(), first.getColumn());
+        return stmt;
+    }
+
+    private static Statement parseStatement(Token first, TokenStream input) throws Exception {
         if (first.toString().equals("print"))     return new Print(input);
         if (first.toString().equals("if"))        return new If(input);
         if (first.toString().equals("while"))     return new While(input);
         if (first.toString().equals("{"))         return new Compound(input);
         if (first.toString().equals("repeat"))    return new Repeat(input);
+        if (first.toString().equals("parallel"))  return new ParallelRepeat(input);
+        if (first.toString().equals("for"))       return new For(input);
         if (first.toString().equals("func"))      return new FunctionDecl(input);
         if (first.toString().equals("return"))    return new Return(input);
+        if (first.toString().equals("yield"))     return new Yield(input);
         
         if (first.getType() == Token.Type.IDENTIFIER) {
             return new Assignment(input);
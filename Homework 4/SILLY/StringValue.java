@@ -1,5 +1,5 @@
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Class that represents a string value.
@@ -9,37 +9,58 @@ import java.util.List;
  */
 public class StringValue extends ListValue {
 
+    // ================================ Fields ================================
+    public static final StringValue EMPTY = new StringValue();
+
     // =========================== Interface Methods ===========================
     @Override
     public DataValue.Type getType()       { return DataValue.Type.STRING; }
 
-    @Override
-    public int compareTo(DataValue other) {
-        return this.toString().compareTo(other.toString());
-    }
-
 
     // ============================== Constructors ============================
     public StringValue()                  { super(); }
     public StringValue(String str)        { super(createCharValueList(str)); }
 
+    /**
+     * Returns a string value for str, sharing the empty string instance.
+     *
+     * @param str String to convert
+     * @return a StringValue holding the characters of str
+     */
+    public static StringValue valueOf(String str) {
+        return str.isEmpty() ? EMPTY : new StringValue(str);
+    }
+
 
     // ============================= Core Methods ============================
     /**
      * Converts a string into a list of CharValue objects.
-     * Each character in the string becomes a CharValue in the list.
+     * Each character in the string becomes a (shared) CharValue in the list.
      *
      * @param str String to convert
      * @return ArrayList of CharValues
      */
     private static ArrayList<DataValue> createCharValueList(String str) {
-        ArrayList<DataValue> charValues = new ArrayList<>();
-        for (char c : str.toCharArray()) {
-            charValues.add(new CharValue(c));
+        ArrayList<DataValue> charValues = new ArrayList<>(str.length());
+        for (int i = 0; i < str.length(); i++) {
+            charValues.add(CharValue.valueOf(str.charAt(i)));
         }
         return charValues;
     }
 
+    /**
+     * Writes the characters of the string, without quotes or delimiters.
+     *
+     * @param out the sink to write to
+     * @throws IOException if the sink cannot be written
+     */
+    @Override
+    public void writeTo(Appendable out) throws IOException {
+        for (DataValue v : this.value) {
+            out.append((Character) v.getValue());
+        }
+    }
+
     /**
      * Converts the string value to its string representation.
      * Concatenates all characters without any delimiters.
@@ -47,12 +68,10 @@ public class StringValue extends ListValue {
      * @return String representation of the value
      */
     @Override
-    @SuppressWarnings("unchecked")
     public String toString() {
-        StringBuilder result = new StringBuilder();
-        List<DataValue> value = (List<DataValue>) super.getValue();
-        for (DataValue v : value) {
-            result.append(v.toString());
+        StringBuilder result = new StringBuilder(this.value.size());
+        for (DataValue v : this.value) {
+            result.append((char) (Character) v.getValue());
         }
         return result.toString();
     }
@@ -0,0 +1,198 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Class that maps symbol ids (see SymbolTable) to values without boxing or
+ * entry objects: keys and values are kept in parallel arrays. Up to 8
+ * entries are stored packed and found by a linear scan; larger maps switch
+ * to an open-addressing table with linear probing. Entries are never
+ * removed.
+ *
+ * One thread at a time may update the map (callers hold a lock) while any
+ * number of threads read it without one. An entry is added in place and
+ * published by a release write (of the size, or of the key in a hashed
+ * table), which a reader's acquire read pairs with; only growing the table
+ * copies it, into a new table published whole. Adding an entry therefore
+ * costs amortized constant time, not a copy of the map.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class SymbolMap<V> {
+
+    // ================================ Fields ================================
+    private static final int LINEAR_LIMIT = 8;
+    private static final int NO_KEY = -1;
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private volatile Table  table;
+    private volatile int    size;
+
+    /**
+     * The arrays of the map. A table is replaced, never resized.
+     */
+    private static final class Table {
+        final int[]     keys;
+        final Object[]  values;
+        final boolean   hashed;         // false: entries packed in [0, size)
+
+        Table(int capacity, boolean hashed) {
+            this.keys = new int[capacity];
+            this.values = new Object[capacity];
+            this.hashed = hashed;
+            if (hashed) {
+                Arrays.fill(this.keys, NO_KEY);
+            }
+        }
+    }
+
+
+    // ============================= Constructors ============================
+    /**
+     * Constructs an empty map.
+     */
+    public SymbolMap() {
+        this.table = new Table(LINEAR_LIMIT, false);
+    }
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Finds the value stored for a symbol.
+     *
+     * @param symbol the symbol id to look up
+     * @return the value stored for symbol, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int symbol) {
+        Table current = this.table;
+        int index = this.indexOf(current, symbol);
+        return (index >= 0) ? (V) VALUES.getAcquire(current.values, index) : null;
+    }
+
+    /**
+     * Determines if a value is stored for a symbol.
+     *
+     * @param symbol the symbol id to look up
+     * @return true if the map contains symbol
+     */
+    public boolean containsKey(int symbol) {
+        return this.indexOf(this.table, symbol) >= 0;
+    }
+
+    /**
+     * Stores a value for a symbol, replacing any earlier value. Only one
+     * thread at a time may call it.
+     *
+     * @param symbol the symbol id (non-negative)
+     * @param value  the value to store
+     */
+    public void put(int symbol, V value) {
+        Table current = this.table;
+        int index = this.indexOf(current, symbol);
+        if (index >= 0) {
+            VALUES.setRelease(current.values, index, value);
+            return;
+        }
+        if (!current.hashed && this.size < LINEAR_LIMIT) {
+            current.keys[this.size] = symbol;
+            current.values[this.size] = value;
+            this.size = this.size + 1;                          // publishes the entry
+            return;
+        }
+        if (!current.hashed || 2 * (this.size + 1) > current.keys.length) {
+            current = this.rehash(current, Math.max(4 * LINEAR_LIMIT, 2 * current.keys.length));
+        }
+        insert(current, symbol, value);
+        this.size = this.size + 1;
+    }
+
+    public int size()   { return this.size; }
+
+    /**
+     * Lists the values stored, in no particular order.
+     *
+     * @return a new list of the values
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayList<V> values() {
+        Table current = this.table;
+        int count = current.hashed ? current.keys.length : Math.min(this.size, current.keys.length);
+        ArrayList<V> result = new ArrayList<V>(count);
+        for (int i = 0; i < count; i++) {
+            if ((int) KEYS.getAcquire(current.keys, i) != NO_KEY) {
+                result.add((V) VALUES.getAcquire(current.values, i));
+            }
+        }
+        return result;
+    }
+
+
+    // ============================ Private Helpers ==========================
+    /**
+     * Finds the index of a symbol in a table. A packed table is scanned up
+     * to the size read after the table, so every entry scanned is one that
+     * was published; once the map is hashed, a packed table is full.
+     */
+    private int indexOf(Table current, int symbol) {
+        if (!current.hashed) {
+            int count = Math.min(this.size, current.keys.length);
+            for (int i = 0; i < count; i++) {
+                if (current.keys[i] == symbol) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = current.keys.length - 1;
+        int key;
+        for (int i = mix(symbol) & mask; (key = (int) KEYS.getAcquire(current.keys, i)) != NO_KEY;
+                i = (i + 1) & mask) {
+            if (key == symbol) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copies every entry into a new hashed table of the given (power of 2)
+     * size and publishes it.
+     */
+    private Table rehash(Table old, int capacity) {
+        Table grown = new Table(capacity, true);
+        int count = old.hashed ? old.keys.length : this.size;
+        for (int i = 0; i < count; i++) {
+            if (old.keys[i] != NO_KEY) {
+                insert(grown, old.keys[i], old.values[i]);
+            }
+        }
+        this.table = grown;
+        return grown;
+    }
+
+    /**
+     * Adds an entry to a hashed table: the value is written before the key
+     * is released, so a reader that finds the key finds the value.
+     */
+    private static void insert(Table current, int symbol, Object value) {
+        int mask = current.keys.length - 1;
+        int i = mix(symbol) & mask;
+        while (current.keys[i] != NO_KEY) {
+            i = (i + 1) & mask;
+        }
+        current.values[i] = value;
+        KEYS.setRelease(current.keys, i, symbol);
+    }
+
+    /**
+     * Spreads consecutive symbol ids over the table.
+     */
+    private static int mix(int symbol) {
+        int h = symbol * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,102 @@
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Class that interns names (e.g., variable identifiers) as small integer
+ * symbol ids, so that memory can compare and hash names as ints. While a
+ * name is in use, it always gets the same id.
+ *
+ * The table is shared by every program the interpreter runs (e.g., all
+ * the clients of a server), so it holds its symbols weakly: a Symbol is
+ * kept alive by the tokens naming it (and a global cell keeps its name
+ * token). Once no token holds a symbol, its entry is dropped and its id
+ * is reused, so the table only grows with the names in use at once.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class SymbolTable {
+
+    // ================================ Fields ================================
+    private static final HashMap<String, Entry>     ENTRIES = new HashMap<String, Entry>();
+    private static final ReferenceQueue<Symbol>     COLLECTED = new ReferenceQueue<Symbol>();
+    private static int[]                            freeIds = new int[16];
+    private static int                              freeCount;
+    private static int                              nextId;
+
+    /**
+     * An interned name and its id. Holding the symbol keeps the id taken.
+     */
+    public static final class Symbol {
+        private final int       id;
+        private final String    name;
+
+        private Symbol(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public int getId()          { return this.id; }
+        public String getName()     { return this.name; }
+    }
+
+    /**
+     * The table's weak reference to a symbol, remembering what to free once
+     * the symbol is collected.
+     */
+    private static final class Entry extends WeakReference<Symbol> {
+        final int       id;
+        final String    name;
+
+        Entry(Symbol symbol) {
+            super(symbol, COLLECTED);
+            this.id = symbol.id;
+            this.name = symbol.name;
+        }
+    }
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Finds the symbol of a name, assigning a free id if the name is not in
+     * use. The caller must hold on to the symbol for as long as it uses the
+     * id.
+     *
+     * @param name the name to intern
+     * @return the symbol for name
+     */
+    public static synchronized Symbol intern(String name) {
+        expungeCollected();
+        Entry entry = ENTRIES.get(name);
+        Symbol symbol = (entry == null) ? null : entry.get();
+        if (symbol == null) {
+            symbol = new Symbol(takeId(), name);
+            ENTRIES.put(name, new Entry(symbol));
+        }
+        return symbol;
+    }
+
+
+    // ============================ Private Helpers ==========================
+    /**
+     * Drops the entries of collected symbols and frees their ids. An entry
+     * may already have been replaced by a newer symbol for the same name,
+     * which is left alone.
+     */
+    private static void expungeCollected() {
+        Entry entry;
+        while ((entry = (Entry) COLLECTED.poll()) != null) {
+            ENTRIES.remove(entry.name, entry);
+            if (freeCount == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, 2 * freeCount);
+            }
+            freeIds[freeCount++] = entry.id;
+        }
+    }
+
+    private static int takeId() {
+        return (freeCount > 0) ? freeIds[--freeCount] : nextId++;
+    }
+}
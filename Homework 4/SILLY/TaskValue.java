@@ -0,0 +1,103 @@
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class that represents a handle to a user function running concurrently,
+ * as returned by spawn. The function runs on its own (virtual, when
+ * available) thread against its own memory space; await returns its result.
+ * Tasks are ordered by when they were spawned.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class TaskValue implements DataValue {
+
+    // ================================ Fields ================================
+    static final ExecutorService TASKS = newPerTaskExecutor();
+    private static final AtomicLong SPAWNED = new AtomicLong();
+
+    private final Future<DataValue> result;
+    private final long              id;             // spawn order, for compareTo
+
+
+    // ============================= Constructors ============================
+    private TaskValue(Future<DataValue> result) {
+        this.result = result;
+        this.id = SPAWNED.getAndIncrement();
+    }
+
+    /**
+     * Starts a call of function on its own thread. The call gets a private
+     * memory space forked from the spawning context, reads its globals and
+     * shares its output.
+     *
+     * @param context  the context spawning the task
+     * @param function the function to call
+     * @param args     the evaluated arguments
+     * @return a handle for awaiting the result
+     */
+    public static TaskValue spawn(InterpreterContext context, FunctionDecl function,
+                                  ArrayList<DataValue> args) {
+        InterpreterContext task = new InterpreterContext(
+                new MemorySpace(context.getMemory(), "a spawned task"), context.getOutput());
+        return new TaskValue(TASKS.submit(() -> function.call(task, args)));
+    }
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Waits for the task to finish.
+     *
+     * @return the value returned by the task's function
+     * @throws Exception the error that ended the task, if it failed
+     */
+    public DataValue await() throws Exception {
+        try {
+            return this.result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Object getValue()          { return this.result; }
+    @Override
+    public DataValue.Type getType()   { return DataValue.Type.TASK; }
+
+    @Override
+    public int compareTo(DataValue other) {
+        return Long.compare(this.id, ((TaskValue) other).id);
+    }
+
+    @Override
+    public String toString()          { return "<task>"; }
+
+
+    // ============================ Package Helpers ==========================
+    /**
+     * Creates an executor that starts a virtual thread per task where the
+     * runtime supports it (Java 21+), falling back to a cached pool of
+     * daemon platform threads.
+     *
+     * @return an executor running each submitted task on its own thread
+     */
+    static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -15,21 +15,28 @@ public class Token {
     public static final List<String> mathFuncs     = Arrays.asList("+", "*", "/");
     public static final List<String> boolFuncs     = Arrays.asList("==", "!=", ">", ">=", "<", "<=",
                                                                   "and", "or", "not");
-    public static final List<String> seqFuncs      = Arrays.asList("len", "get", "cat", "str");
+    public static final List<String> seqFuncs      = Arrays.asList("len", "get", "cat", "str",
+                                                                  "map", "filter", "reduce", "range");
+    public static final List<String> taskFuncs     = Arrays.asList("spawn", "await", "chan", "send", "recv");
     public static final List<String> keywords      = Arrays.asList("=", "print", "if", "else", "while",
-                                                                  "repeat", "func", "return");
+                                                                  "repeat", "func", "return", "parallel", "into",
+                                                                  "for", "in", "yield");
 
 
     // ================================= Types ==================================
     public static enum Type {
         UNKNOWN,     DELIM,       KEYWORD,     IDENTIFIER, 
         BOOL_FUNC,   MATH_FUNC,   SEQ_FUNC,    NUM_LITERAL, 
-        BOOL_LITERAL,             CHAR_LITERAL, STR_LITERAL
+        BOOL_LITERAL,             CHAR_LITERAL, STR_LITERAL,
+        TASK_FUNC
     }
 
 
     // =============================== Instance ================================
     private String strVal;
+    private SymbolTable.Symbol symbol;    // interned strVal, looked up on first use
+    private int    line;              // source position, or 0 if unknown
+    private int    column;
 
     /**
      * Constructs a token out of the given string.
@@ -37,9 +44,25 @@ public class Token {
      * @param str the string value of the token
      */
     public Token(String str) {
+        this(str, 0, 0);
+    }
+
+    /**
+     * Constructs a token read from a source position.
+     * 
+     * @param str    the string value of the token
+     * @param line   the line the token starts on (1 for the first line)
+     * @param column the column the token starts at (1 for the first column)
+     */
+    public Token(String str, int line, int column) {
         this.strVal = str;
+        this.line = line;
+        this.column = column;
     }
 
+    public int getLine()        { return this.line; }
+    public int getColumn()      { return this.column; }
+
     /**
      * Analyzes token string to determine its syntactic type.
      * Handles numbers, delimiters, keywords, identifiers, and literals.
@@ -66,6 +89,8 @@ public class Token {
             return Token.Type.MATH_FUNC;
         } else if (Token.seqFuncs.contains(this.strVal)) {
             return Token.Type.SEQ_FUNC;
+        } else if (Token.taskFuncs.contains(this.strVal)) {
+            return Token.Type.TASK_FUNC;
         } else if (Token.booleans.contains(this.strVal)) {
             return Token.Type.BOOL_LITERAL;
         } else if (Character.isLetter(this.strVal.charAt(0))) {
@@ -90,6 +115,22 @@ public class Token {
         }
     }
 
+    /**
+     * Gets the symbol id of the token's string (see SymbolTable), so that
+     * names can be compared as ints. The token keeps the symbol, and so
+     * the id, for as long as the token lives.
+     *
+     * @return the interned symbol id
+     */
+    public int getSymbol() {
+        SymbolTable.Symbol interned = this.symbol;
+        if (interned == null) {
+            interned = SymbolTable.intern(this.strVal);
+            this.symbol = interned;
+        }
+        return interned.getId();
+    }
+
     /**
      * Compares token with another object for equality.
      * Two tokens are equal if they have the same string value.
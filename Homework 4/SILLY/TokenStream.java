@@ -3,7 +3,8 @@ import java.io.File;
 
 /**
  * Class for reading SILLY language tokens from an input stream, either
- * standard input or a file.
+ * standard input or a file. Tokens are tagged with the line and column
+ * they start at, so that statements can be mapped back to the source.
  * @author Dave Reed
  * @version 1/20/25, updated 3/27/25
  */
@@ -13,6 +14,10 @@ public class TokenStream {
     private Scanner        input;
     private Token         nextToken;
     private String        buffer;
+    private String        line;           // current source line
+    private int           lineNumber;     // number of the current line
+    private int           lineOffset;     // index in line of the first unread character
+    private int           column;         // column of the first character of buffer
 
 
     // =============================== Constructors ==============================
@@ -23,6 +28,7 @@ public class TokenStream {
     public TokenStream() {
         this.input = new Scanner(System.in);
         this.buffer = "";
+        this.line = "";
     }
     
     /**
@@ -34,6 +40,19 @@ public class TokenStream {
     public TokenStream(String filename) throws java.io.FileNotFoundException {
         this.input = new Scanner(new File(filename));
         this.buffer = "";
+        this.line = "";
+    }
+
+    /**
+     * Constructs a TokenStream for reading from any character source,
+     * such as a StringReader over program text.
+     * 
+     * @param source the characters to be tokenized
+     */
+    public TokenStream(Readable source) {
+        this.input = new Scanner(source);
+        this.buffer = "";
+        this.line = "";
     }
 
 
@@ -46,8 +65,8 @@ public class TokenStream {
      */
     public Token lookAhead() {
         if (this.nextToken == null) {
-            if (this.buffer.equals("") && this.input.hasNext()) {
-                this.buffer = this.input.next().strip();
+            if (this.buffer.equals("")) {
+                this.readWord();
             }
             
             int index = 1;
@@ -65,7 +84,7 @@ public class TokenStream {
                     }
                 }
             }
-            this.nextToken = new Token(this.buffer.substring(0, index));
+            this.nextToken = new Token(this.buffer.substring(0, index), this.lineNumber, this.column);
         }
         return this.nextToken;
     }
@@ -78,7 +97,8 @@ public class TokenStream {
     public Token next() {
         Token safe = this.lookAhead();
         this.nextToken = null;
-        this.buffer = this.buffer.substring(safe.toString().length()).strip();
+        this.buffer = this.buffer.substring(safe.toString().length());
+        this.column += safe.toString().length();
         return safe;
     }
      
@@ -90,6 +110,39 @@ public class TokenStream {
      * @return true if more tokens can be read
      */
     public boolean hasNext() {
-        return (this.nextToken != null || !this.buffer.equals("") || this.input.hasNext());
+        return (this.nextToken != null || !this.buffer.equals("") || this.readWord());
+    }
+
+
+    // ============================ Helper Methods ==============================
+    /**
+     * Reads the next whitespace-separated word of the input into the buffer,
+     * moving on to later lines as needed.
+     * 
+     * @return true if a word was read, false at the end of the input
+     */
+    private boolean readWord() {
+        while (true) {
+            int start = this.lineOffset;
+            while (start < this.line.length() && Character.isWhitespace(this.line.charAt(start))) {
+                start++;
+            }
+            if (start < this.line.length()) {
+                int end = start + 1;
+                while (end < this.line.length() && !Character.isWhitespace(this.line.charAt(end))) {
+                    end++;
+                }
+                this.buffer = this.line.substring(start, end);
+                this.column = start + 1;
+                this.lineOffset = end;
+                return true;
+            }
+            if (!this.input.hasNextLine()) {
+                return false;
+            }
+            this.line = this.input.nextLine();
+            this.lineNumber++;
+            this.lineOffset = 0;
+        }
     }
 }
\ No newline at end of file
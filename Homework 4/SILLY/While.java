@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.util.Set;
+
 /**
  * Derived class that represents a while statement in the SILLY language.
  * 
@@ -20,6 +23,17 @@ public class While extends Statement {
         this.loopBlock = new Compound(input);
     }
 
+    /**
+     * Reads a while statement written by AstEncoder.
+     *
+     * @param in the decoder to read from
+     * @throws IOException if the data is not a valid while statement
+     */
+    public While(AstDecoder in) throws IOException {
+        this.loopCondition = new Expression(in);
+        this.loopBlock = in.readCompound();
+    }
+
 
     // ============================ Main Operations ============================
     /**
@@ -29,17 +43,39 @@ public class While extends Statement {
      * @throws Exception if condition evaluation or body execution fails
      */
     @Override
-    public void execute() throws Exception {
+    public void execute(InterpreterContext context) throws Exception {
         for (;;) {  // alternative to while(true)
-            DataValue testResult = this.loopCondition.evaluate();
+            DataValue testResult = this.loopCondition.evaluate(context);
             validateBooleanCondition(testResult);
             
             if (!getBooleanValue(testResult)) { break; }
             
-            executeLoopBody();
+            executeLoopBody(context);
         }
     }
 
+    @Override
+    public boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        return this.loopCondition.isPure(context, visiting) && this.loopBlock.isPure(context, visiting);
+    }
+
+    @Override
+    public boolean yields() {
+        return this.loopBlock.yields();
+    }
+
+    @Override
+    void resolveScopes(Set<Token> declared) {
+        this.loopBlock.resolveScopes(declared);
+    }
+
+    @Override
+    public void encode(AstEncoder out) throws IOException {
+        out.writeByte(AstEncoder.WHILE);
+        this.loopCondition.encode(out);
+        out.writeStatement(this.loopBlock);
+    }
+
     @Override
     public String toString() {
         return String.format("while %s %s", this.loopCondition, this.loopBlock);
@@ -75,9 +111,9 @@ public class While extends Statement {
      * 
      * @throws Exception if body execution fails
      */
-    private void executeLoopBody() throws Exception {
+    private void executeLoopBody(InterpreterContext context) throws Exception {
         try {
-            this.loopBlock.execute();
+            this.loopBlock.execute(context);
         } catch (Return.ReturnException re) {
             throw re;
         }
@@ -0,0 +1,83 @@
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Derived class that represents a yield statement in the SILLY language.
+ * A function whose body contains a yield is a generator: calling it returns
+ * a lazy sequence, and each yield hands the next element to whoever is
+ * reading that sequence.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class Yield extends Statement {
+
+    // ================================ Fields ================================
+    private final Expression yieldExpr;
+
+
+    // ============================= Constructors ============================
+    /**
+     * Reads in a yield statement from the specified stream
+     *
+     * @param input the stream to be read from
+     */
+    public Yield(TokenStream input) throws Exception {
+        if (!input.next().toString().equals("yield")) {
+            throw new Exception("SYNTAX ERROR: Malformed yield statement");
+        }
+        this.yieldExpr = new Expression(input);
+    }
+
+    /**
+     * Reads a yield statement written by AstEncoder.
+     *
+     * @param in the decoder to read from
+     * @throws IOException if the data is not a valid yield statement
+     */
+    public Yield(AstDecoder in) throws IOException {
+        this.yieldExpr = new Expression(in);
+    }
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Evaluates the expression and hands its value to the reader of the
+     * generator's sequence, waiting until the reader asks for the next one.
+     *
+     * @throws Exception if not inside a generator function
+     */
+    @Override
+    public void execute(InterpreterContext context) throws Exception {
+        if (context.getGenerator() == null) {
+            throw new Exception("RUNTIME ERROR: yield outside of generator function");
+        }
+        context.getGenerator().yield(this.yieldExpr.evaluate(context));
+    }
+
+    @Override
+    public boolean isPure(InterpreterContext context, Set<FunctionDecl> visiting) {
+        return this.yieldExpr.isPure(context, visiting);
+    }
+
+    @Override
+    public boolean yields() {
+        return true;
+    }
+
+    @Override
+    public void encode(AstEncoder out) throws IOException {
+        out.writeByte(AstEncoder.YIELD);
+        this.yieldExpr.encode(out);
+    }
+
+    /**
+     * Converts the current yield statement into a String.
+     *
+     * @return the String representation of this statement
+     */
+    @Override
+    public String toString() {
+        return "yield " + this.yieldExpr;
+    }
+}
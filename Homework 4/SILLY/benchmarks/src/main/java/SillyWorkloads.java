@@ -0,0 +1,81 @@
+import java.io.OutputStream;
+import java.io.StringReader;
+
+import silly.bench.Workloads;
+
+/**
+ * Implementation of the benchmark workloads (see silly.bench.Workloads)
+ * using the interpreter's classes directly.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class SillyWorkloads implements Workloads {
+
+    // ============================= Core Methods ============================
+    @Override
+    public Workload lexer(String source) {
+        return () -> {
+            TokenStream input = new TokenStream(new StringReader(source));
+            int count = 0;
+            while (input.hasNext()) {
+                input.next();
+                count++;
+            }
+            return count;
+        };
+    }
+
+    @Override
+    public Workload parser(String source) {
+        return () -> {
+            TokenStream input = new TokenStream(new StringReader(source));
+            int count = 0;
+            while (input.hasNext()) {
+                Statement.getStatement(input);
+                count++;
+            }
+            return count;
+        };
+    }
+
+    @Override
+    public Workload expression(String setup, String expression) throws Exception {
+        InterpreterContext context = newContext();
+        for (Statement stmt : SillyProgram.compile(setup).getStatements()) {
+            stmt.execute(context);
+        }
+        Expression expr = new Expression(new TokenStream(new StringReader(expression)));
+        return () -> expr.evaluate(context);
+    }
+
+    @Override
+    public Workload lookup(int depth, boolean global) throws Exception {
+        InterpreterContext context = newContext();
+        MemorySpace memory = context.getMemory();
+        Token variable = new Token("target");
+        if (global) {
+            memory.declareVariable(variable);
+            memory.storeValue(variable, NumberValue.valueOf(1));
+            memory.beginFunctionScope();
+        } else {
+            memory.beginFunctionScope();
+            memory.declareVariable(variable);
+            memory.storeLocalValue(variable, NumberValue.valueOf(1));
+        }
+        for (int i = 0; i < depth; i++) {
+            Token filler = new Token("filler" + i);
+            memory.beginNestedScope();
+            memory.declareVariable(filler);
+            memory.storeLocalValue(filler, NumberValue.valueOf(i));
+        }
+        return () -> memory.lookupValue(variable);
+    }
+
+
+    // ============================ Private Helpers ==========================
+    private static InterpreterContext newContext() {
+        return new InterpreterContext(
+                new OutputSink(OutputStream.nullOutputStream(), OutputSink.FlushPolicy.BUFFER));
+    }
+}
@@ -0,0 +1,42 @@
+package silly.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks, taking the usual JMH command-line options. Unless
+ * other profilers are named with -prof, the GC profiler is enabled so
+ * every result reports allocation per operation (gc.alloc.rate.norm).
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class BenchmarkMain {
+
+    /**
+     * Runs the benchmarks selected by the command line.
+     *
+     * @param args JMH options (e.g., a benchmark name pattern, -f, -wi, -rf json)
+     * @throws Exception if the options are malformed or a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp()) {
+            cmd.showHelp();
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+        if (cmd.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        Runner runner = new Runner(options.build());
+        if (cmd.shouldList()) {
+            runner.list();
+        } else {
+            runner.run();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package silly.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of calling user-defined functions: a single call
+ * to a trivial function, and the many small calls of a recursive one.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallBenchmark {
+
+    private static final String FUNCTIONS = String.join("\n",
+            "func id(x) { return x }",
+            "func add(a b) { c = (+ a b) return c }",
+            "func fib(n) {",
+            "  if (< n 2) { return n } else { return (+ (fib (+ n -1)) (fib (+ n -2))) }",
+            "}");
+
+    private Workloads.Workload identity;
+    private Workloads.Workload withLocal;
+    private Workloads.Workload recursive;
+
+    @Setup
+    public void setUp() throws Exception {
+        Workloads workloads = Workloads.load();
+        this.identity = workloads.expression(FUNCTIONS, "(id 1)");
+        this.withLocal = workloads.expression(FUNCTIONS, "(add 1 2)");
+        this.recursive = workloads.expression(FUNCTIONS, "(fib 15)");
+    }
+
+    @Benchmark
+    public Object identity() throws Exception {
+        return this.identity.run();
+    }
+
+    @Benchmark
+    public Object withLocal() throws Exception {
+        return this.withLocal.run();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object fib15() throws Exception {
+        return this.recursive.run();
+    }
+}
@@ -0,0 +1,466 @@
+package silly.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Runs the programs of the benchmark corpus against each version of the
+ * interpreter in the repository, measures wall time, allocation and peak
+ * heap, and compares them with baselines recorded on the same machine.
+ *
+ * The corpus directory holds a manifest, the SILLY programs and, for each
+ * program, the output it must print (prog.silly is checked against
+ * prog.out). The manifest has two kinds of lines:
+ *
+ *     version NAME DRIVER SOURCE-DIR
+ *     program FILE VERSION...
+ *
+ * A version's sources are compiled into a temporary directory and loaded
+ * by one class loader, which every run of that version reuses, so that
+ * the measured runs (after the warm-up runs) execute JIT-compiled code
+ * instead of loading and compiling the classes again. The "batch" driver
+ * runs a program with "Interpreter FILE" (using the AST cache, kept in a
+ * temporary directory), "batch-no-cache" with "Interpreter --no-cache
+ * FILE"; the "statements" driver (for
+ * interpreters with no batch mode) parses and executes the statements
+ * itself, so that they are not echoed, and gives those interpreters a new
+ * Interpreter.MEMORY before each run so no variables carry over. A run
+ * that ends in an uncaught Error (e.g., a StackOverflowError) is not a
+ * harness failure: "uncaught CLASS-NAME" is added to its output, so a
+ * program's expected output can say how it must end.
+ *
+ * The corpus doubles as a regression suite: --outputs runs each program
+ * twice per version and only checks what it prints, with no baselines.
+ * (With the batch driver, the second run loads the program from the AST
+ * cache the first run wrote.)
+ *
+ * Wall time and peak heap depend on the machine and its load, so the
+ * baselines are not part of the repository: record them with --record
+ * on the machine that will run the checks, before the first check. By
+ * default only allocation, which is repeatable, is checked against them;
+ * time and peak heap are reported, and checked only with --gate-all.
+ *
+ * Usage (from the benchmarks directory, after mvn package):
+ *
+ *     java -cp target/benchmarks.jar silly.bench.CorpusHarness [options] [CORPUS-DIR]
+ *
+ *     --record         store the results as the new baselines
+ *     --threshold PCT  allowed growth over a baseline (default 25)
+ *     --runs N         measured runs per program and version (default 5)
+ *     --warmup N       unmeasured runs before them (default 3)
+ *     --gate-all       also check time and peak heap
+ *     --outputs        only check the outputs (no measurements or baselines)
+ *
+ * Exits with status 1 if a program prints the wrong output or a checked
+ * metric exceeds its baseline by more than the threshold, and with status
+ * 2 if there are no baselines to check against.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public class CorpusHarness {
+
+    // ================================ Fields ================================
+    private static final String MANIFEST = "manifest.txt";
+    private static final String BASELINES = "baselines.txt";
+    private static final String[] METRICS = {"time(ns)", "alloc(B)", "peak heap(B)"};
+    private static final int ALLOC = 1;                 // the metric checked by default
+
+    private final Path corpus;
+    private final Path workDir;
+    private final Map<String, Version> versions = new LinkedHashMap<String, Version>();
+    private final Map<String, List<String>> programs = new LinkedHashMap<String, List<String>>();
+
+    /**
+     * One interpreter version from the manifest.
+     */
+    private static final class Version {
+        final String name;
+        final String driver;
+        final Path sources;
+        URLClassLoader loader;          // shared by every run, once compiled
+
+        Version(String name, String driver, Path sources) {
+            this.name = name;
+            this.driver = driver;
+            this.sources = sources;
+        }
+    }
+
+
+    // ============================= Constructors ============================
+    private CorpusHarness(Path corpus) throws IOException {
+        this.corpus = corpus;
+        this.workDir = Files.createTempDirectory("silly-corpus");
+        this.readManifest();
+    }
+
+
+    // ========================== Program Entry ==============================
+    /**
+     * Runs the corpus.
+     *
+     * @param args options and the corpus directory (see the class comment)
+     * @throws Exception if the corpus cannot be read or an interpreter fails to compile
+     */
+    public static void main(String[] args) throws Exception {
+        boolean record = false;
+        boolean gateAll = false;
+        boolean outputsOnly = false;
+        double threshold = 25;
+        int runs = 5;
+        int warmup = 3;
+        Path corpus = Paths.get("corpus");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--record":    record = true; break;
+                case "--gate-all":  gateAll = true; break;
+                case "--outputs":   outputsOnly = true; break;
+                case "--threshold": threshold = Double.parseDouble(args[++i]); break;
+                case "--runs":      runs = Integer.parseInt(args[++i]); break;
+                case "--warmup":    warmup = Integer.parseInt(args[++i]); break;
+                default:            corpus = Paths.get(args[i]);
+            }
+        }
+
+        CorpusHarness harness = new CorpusHarness(corpus);
+        Map<String, long[]> baselines = harness.readBaselines();
+        if (!record && !outputsOnly && baselines.isEmpty()) {
+            System.out.println("No baselines in " + corpus.resolve(BASELINES)
+                               + "; run with --record on this machine first.");
+            System.exit(2);
+        }
+        System.setProperty("silly.cache.dir", harness.workDir.toString());   // keep .sillyc files out of the corpus
+        boolean failed;
+        if (outputsOnly) {
+            failed = !harness.checkOutputs();
+        } else {
+            Map<String, long[]> results = harness.runAll(runs, warmup);
+            failed = results.containsValue(null);
+            if (record) {
+                harness.writeBaselines(results);
+                System.out.println("Baselines written to " + corpus.resolve(BASELINES));
+            } else {
+                failed |= harness.compare(results, baselines, threshold, gateAll);
+            }
+        }
+        try (Stream<Path> files = Files.walk(harness.workDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+        System.exit(failed ? 1 : 0);    // interpreters may leave worker threads behind
+    }
+
+
+    // ============================= Core Methods ============================
+    /**
+     * Runs every program against every version it supports.
+     *
+     * @param runs   the number of measured runs of each
+     * @param warmup the number of unmeasured runs before them
+     * @return the fastest time, median allocation and largest peak heap, keyed
+     *         by "PROGRAM VERSION" (null if the program printed the wrong output)
+     * @throws Exception if an interpreter cannot be compiled or run
+     */
+    private Map<String, long[]> runAll(int runs, int warmup) throws Exception {
+        Map<String, long[]> results = new LinkedHashMap<String, long[]>();
+        System.out.printf("%-18s %-7s %10s %14s %14s%n", "program", "version",
+                          "time(ms)", "alloc(B)", "peak heap(B)");
+        for (Map.Entry<String, List<String>> entry : this.programs.entrySet()) {
+            Path program = this.corpus.resolve(entry.getKey());
+            String expected = readExpected(program);
+            for (String name : entry.getValue()) {
+                Version version = this.versions.get(name);
+                String key = entry.getKey() + " " + name;
+                long[][] samples = new long[runs][];
+                String output = this.run(version, program, null);
+                for (int i = 1; i < warmup && output.equals(expected); i++) {
+                    output = this.run(version, program, null);
+                }
+                for (int i = 0; i < runs && output.equals(expected); i++) {
+                    samples[i] = new long[3];
+                    output = this.run(version, program, samples[i]);
+                }
+                if (!output.equals(expected)) {
+                    System.out.printf("%-18s %-7s WRONG OUTPUT:%n%s", entry.getKey(), name, output);
+                    results.put(key, null);
+                    continue;
+                }
+                long[] result = {min(samples, 0), median(samples, 1), max(samples, 2)};
+                System.out.printf("%-18s %-7s %10.1f %14d %14d%n", entry.getKey(), name,
+                                  result[0] / 1e6, result[1], result[2]);
+                results.put(key, result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs every program twice against every version it supports, checking
+     * only what it prints. The second run checks a program loaded from the
+     * AST cache, if the version has one.
+     *
+     * @return true if every program printed its expected output
+     * @throws Exception if an interpreter cannot be compiled or run
+     */
+    private boolean checkOutputs() throws Exception {
+        int wrong = 0, checked = 0;
+        for (Map.Entry<String, List<String>> entry : this.programs.entrySet()) {
+            Path program = this.corpus.resolve(entry.getKey());
+            String expected = readExpected(program);
+            for (String name : entry.getValue()) {
+                String output = this.run(this.versions.get(name), program, null);
+                if (output.equals(expected)) {
+                    output = this.run(this.versions.get(name), program, null);
+                }
+                checked++;
+                if (output.equals(expected)) {
+                    System.out.printf("%-18s %-7s ok%n", entry.getKey(), name);
+                } else {
+                    System.out.printf("%-18s %-7s WRONG OUTPUT:%n%s", entry.getKey(), name, output);
+                    wrong++;
+                }
+            }
+        }
+        System.out.printf("%d of %d runs printed the expected output.%n", checked - wrong, checked);
+        return wrong == 0;
+    }
+
+    /**
+     * Runs one program once, in the version's class loader.
+     *
+     * @param version the interpreter version to run
+     * @param program the program file
+     * @param sample  where to put the wall time (ns), allocated bytes and peak
+     *                heap bytes of the run, or null if they are not wanted
+     * @return everything the program printed, then "uncaught CLASS-NAME"
+     *         if it ended in an Error
+     * @throws Exception if the interpreter cannot be loaded or fails
+     */
+    private String run(Version version, Path program, long[] sample) throws Exception {
+        if (version.loader == null) {
+            version.loader = new URLClassLoader(new URL[] {this.compile(version)},
+                                                ClassLoader.getPlatformClassLoader());
+        }
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        PrintStream stdout = System.out;
+        try {
+            System.gc();
+            List<MemoryPoolMXBean> heap = heapPools();
+            heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+            System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            this.execute(version.driver, version.loader, program.toString());
+            long elapsed = System.nanoTime() - start;
+            allocated = allocatedBytes() - allocated;
+            if (sample != null) {
+                sample[0] = elapsed;
+                sample[1] = allocated;
+                sample[2] = heap.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            }
+        } catch (InvocationTargetException e) {
+            if (!(e.getCause() instanceof Error)) {
+                throw new Exception(version.name + " failed on " + program, e.getCause());
+            }
+            System.out.println("uncaught " + e.getCause().getClass().getName());
+        } finally {
+            System.out.flush();
+            System.setOut(stdout);
+        }
+        return captured.toString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+    }
+
+    /**
+     * Runs a program with one of the drivers.
+     *
+     * @param driver  "batch", "batch-no-cache" or "statements"
+     * @param loader  the class loader holding the interpreter
+     * @param program the program's file name
+     * @throws Exception if the interpreter cannot be called or fails
+     */
+    private void execute(String driver, ClassLoader loader, String program) throws Exception {
+        if (driver.equals("batch")) {
+            loader.loadClass("Interpreter").getMethod("main", String[].class)
+                  .invoke(null, (Object) new String[] {program});
+        } else if (driver.equals("batch-no-cache")) {
+            loader.loadClass("Interpreter").getMethod("main", String[].class)
+                  .invoke(null, (Object) new String[] {"--no-cache", program});
+        } else {
+            Class<?> streamClass = loader.loadClass("TokenStream");
+            Class<?> stmtClass = loader.loadClass("Statement");
+            loader.loadClass("Interpreter").getField("MEMORY")
+                  .set(null, loader.loadClass("MemorySpace").getConstructor().newInstance());
+            Object input = streamClass.getConstructor(String.class).newInstance(program);
+            java.lang.reflect.Method hasNext = streamClass.getMethod("hasNext");
+            java.lang.reflect.Method parse = stmtClass.getMethod("getStatement", streamClass);
+            java.lang.reflect.Method execute = stmtClass.getMethod("execute");
+            while ((Boolean) hasNext.invoke(input)) {
+                execute.invoke(parse.invoke(null, input));
+            }
+        }
+    }
+
+    /**
+     * Compares results with the baselines, reporting every regression of a
+     * checked metric.
+     *
+     * @param results   the results of this run
+     * @param baselines the stored results
+     * @param threshold the allowed growth, in percent
+     * @param gateAll   true to check every metric, false for allocation only
+     * @return true if any checked metric regressed
+     */
+    private boolean compare(Map<String, long[]> results, Map<String, long[]> baselines,
+                            double threshold, boolean gateAll) {
+        boolean regressed = false;
+        for (Map.Entry<String, long[]> entry : results.entrySet()) {
+            long[] baseline = baselines.get(entry.getKey());
+            if (baseline == null || entry.getValue() == null) {
+                continue;
+            }
+            for (int m = 0; m < METRICS.length; m++) {
+                if (!gateAll && m != ALLOC) {
+                    continue;
+                }
+                double limit = baseline[m] * (1 + threshold / 100);
+                if (entry.getValue()[m] > limit) {
+                    System.out.printf("REGRESSION: %s %s %d > baseline %d (+%.0f%%)%n", entry.getKey(),
+                                      METRICS[m], entry.getValue()[m], baseline[m],
+                                      100.0 * (entry.getValue()[m] - baseline[m]) / baseline[m]);
+                    regressed = true;
+                }
+            }
+        }
+        if (!regressed) {
+            System.out.printf("No regressions over %.0f%% in %s against %d baselines.%n", threshold,
+                              gateAll ? "any metric" : METRICS[ALLOC], baselines.size());
+        }
+        return regressed;
+    }
+
+
+    // ============================ Private Helpers ==========================
+    private void readManifest() throws IOException {
+        for (String line : Files.readAllLines(this.corpus.resolve(MANIFEST))) {
+            String[] words = line.strip().split("\\s+", 4);
+            String[] all = line.strip().split("\\s+");
+            if (words[0].isEmpty() || words[0].startsWith("#")) {
+                continue;
+            } else if (words[0].equals("version") && words.length == 4) {
+                Path sources = this.corpus.resolve(words[3]).normalize();
+                this.versions.put(words[1], new Version(words[1], words[2], sources));
+            } else if (words[0].equals("program") && words.length >= 3) {
+                List<String> supported = Arrays.asList(all).subList(2, all.length);
+                for (String name : supported) {
+                    if (!this.versions.containsKey(name)) {
+                        throw new IOException(MANIFEST + ": unknown version " + name);
+                    }
+                }
+                this.programs.put(words[1], supported);
+            } else {
+                throw new IOException(MANIFEST + ": malformed line: " + line);
+            }
+        }
+    }
+
+    private Map<String, long[]> readBaselines() throws IOException {
+        Map<String, long[]> baselines = new LinkedHashMap<String, long[]>();
+        Path file = this.corpus.resolve(BASELINES);
+        if (!Files.exists(file)) {
+            return baselines;
+        }
+        for (String line : Files.readAllLines(file)) {
+            String[] words = line.strip().split("\\s+");
+            if (words.length == 5 && !words[0].startsWith("#")) {
+                baselines.put(words[0] + " " + words[1], new long[] {
+                        Long.parseLong(words[2]), Long.parseLong(words[3]), Long.parseLong(words[4])});
+            }
+        }
+        return baselines;
+    }
+
+    private void writeBaselines(Map<String, long[]> results) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        lines.add("# PROGRAM VERSION TIME(ns) ALLOC(B) PEAK-HEAP(B), written by CorpusHarness --record");
+        for (Map.Entry<String, long[]> entry : results.entrySet()) {
+            if (entry.getValue() != null) {
+                lines.add(entry.getKey() + " " + Arrays.stream(entry.getValue())
+                        .mapToObj(Long::toString).collect(Collectors.joining(" ")));
+            }
+        }
+        Files.write(this.corpus.resolve(BASELINES), lines);
+    }
+
+    /**
+     * Compiles a version's sources into a directory of its own.
+     *
+     * @param version the version to compile
+     * @return the URL of the compiled classes
+     * @throws Exception if the sources do not compile
+     */
+    private URL compile(Version version) throws Exception {
+        Path classes = Files.createDirectories(this.workDir.resolve(version.name));
+        List<String> args = new ArrayList<String>(Arrays.asList("-nowarn", "-d", classes.toString()));
+        try (Stream<Path> files = Files.list(version.sources)) {
+            files.filter(f -> f.toString().endsWith(".java")).forEach(f -> args.add(f.toString()));
+        }
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+        if (javac.run(null, diagnostics, diagnostics, args.toArray(new String[0])) != 0) {
+            throw new Exception("cannot compile " + version.name + " from " + version.sources + ":\n"
+                                + diagnostics.toString(StandardCharsets.UTF_8));
+        }
+        return classes.toUri().toURL();
+    }
+
+    private static String readExpected(Path program) throws IOException {
+        String name = program.getFileName().toString();
+        Path expected = program.resolveSibling(name.substring(0, name.lastIndexOf('.')) + ".out");
+        return Files.readString(expected).replace("\r\n", "\n");
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                                .collect(Collectors.toList());
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long median(long[][] samples, int metric) {
+        return Arrays.stream(samples).mapToLong(s -> s[metric]).sorted().toArray()[samples.length / 2];
+    }
+
+    private static long min(long[][] samples, int metric) {
+        return Arrays.stream(samples).mapToLong(s -> s[metric]).min().getAsLong();
+    }
+
+    private static long max(long[][] samples, int metric) {
+        return Arrays.stream(samples).mapToLong(s -> s[metric]).max().getAsLong();
+    }
+}
@@ -0,0 +1,60 @@
+package silly.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Expression.evaluate on already parsed expressions, one
+ * benchmark per kind of builtin.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    /** Which kind of builtin the expression uses. */
+    @Param({"math", "boolean", "list", "string", "range", "higherOrder"})
+    public String kind;
+
+    private Workloads.Workload expression;
+
+    @Setup
+    public void setUp() throws Exception {
+        String setup = "func sq(x) { return (* x x) } func add(a b) { return (+ a b) }";
+        this.expression = Workloads.load().expression(setup, expressionFor(this.kind));
+    }
+
+    @Benchmark
+    public Object evaluate() throws Exception {
+        return this.expression.run();
+    }
+
+    private static String expressionFor(String kind) {
+        switch (kind) {
+            case "math":        return "(+ (* 3 4) (/ 10 4) 7.5 -2)";
+            case "boolean":     return "(and (< 1 2 3) (>= 3 3 2) (not false) (!= 1 2))";
+            case "list":        return "(get (cat [1 2 3] [4 5 6]) (len [7 8 9]))";
+            case "string":      return "(== (cat \"abc\" (str 12.5)) \"abc12.5\")";
+            case "range":       return "(get (range 0 1000 3) 300)";
+            case "higherOrder": return "(reduce add 0 (map sq (range 0 32)))";
+            default:            throw new IllegalArgumentException("unknown kind " + kind);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package silly.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast TokenStream splits source text into tokens.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmark {
+
+    /** How many copies of the sample program make up the source. */
+    @Param({"1", "16", "256"})
+    public int copies;
+
+    private Workloads.Workload lexer;
+
+    @Setup
+    public void setUp() {
+        this.lexer = Workloads.load().lexer(Workloads.SAMPLE.repeat(this.copies));
+    }
+
+    @Benchmark
+    public Object lex() throws Exception {
+        return this.lexer.run();
+    }
+}
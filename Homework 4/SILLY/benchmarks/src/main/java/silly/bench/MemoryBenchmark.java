@@ -0,0 +1,51 @@
+package silly.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures MemorySpace variable lookup from varying depths of nested
+ * scopes, for a local of the enclosing function and for a global.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryBenchmark {
+
+    /** How many nested scopes (each with one variable) surround the lookup. */
+    @Param({"0", "4", "16", "64"})
+    public int depth;
+
+    /** Whether the variable looked up is a global. */
+    @Param({"false", "true"})
+    public boolean global;
+
+    private Workloads.Workload lookup;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.lookup = Workloads.load().lookup(this.depth, this.global);
+    }
+
+    @Benchmark
+    public Object lookup() throws Exception {
+        return this.lookup.run();
+    }
+}
@@ -0,0 +1,90 @@
+package silly.bench;
+
+/**
+ * The operations of the SILLY interpreter that the benchmarks measure.
+ * The interpreter lives in the default package, which a benchmark (JMH
+ * requires a named package) cannot import, so it is reached through this
+ * interface, implemented by SillyWorkloads in the default package.
+ *
+ * @author Conler Simmons
+ * @version 3/27/25
+ */
+public interface Workloads {
+
+    /**
+     * A prepared piece of interpreter work that can be run repeatedly.
+     */
+    interface Workload {
+        /**
+         * Runs the work once.
+         *
+         * @return a result for the benchmark to consume
+         * @throws Exception if the interpreter reports an error
+         */
+        Object run() throws Exception;
+    }
+
+    /** A small program exercising most statements, used as lexer and parser input. */
+    String SAMPLE = String.join("\n",
+            "func fib(n) {",
+            "  if (< n 2) { return n } else { return (+ (fib (+ n -1)) (fib (+ n -2))) }",
+            "}",
+            "func sq(x) { return (* x x) }",
+            "xs = [1 2 [3 \"ab\" 'c'] true]",
+            "total = 0",
+            "i = 0",
+            "while (< i 10) { total = (+ total (sq i)) i = (+ i 1) }",
+            "repeat 3 { s = (cat \"a\" \"b\") }",
+            "if (and (>= total 0) (not false)) { print (str total) } else { print \"no\" }",
+            "print (len (range 0 100))",
+            "");
+
+    /**
+     * Prepares to split source text into tokens.
+     *
+     * @param source the text to lex
+     * @return work that lexes the whole text and returns the number of tokens
+     */
+    Workload lexer(String source);
+
+    /**
+     * Prepares to parse source text into statements.
+     *
+     * @param source the text to parse
+     * @return work that parses the whole text and returns the number of statements
+     */
+    Workload parser(String source);
+
+    /**
+     * Prepares to evaluate an expression, after running a setup program.
+     *
+     * @param setup      statements to execute once beforehand (e.g., function definitions)
+     * @param expression the expression to evaluate
+     * @return work that evaluates the already parsed expression and returns its value
+     * @throws Exception if the setup fails or the expression is malformed
+     */
+    Workload expression(String setup, String expression) throws Exception;
+
+    /**
+     * Prepares to look up a variable from inside nested scopes.
+     *
+     * @param depth  how many nested scopes lie between the lookup and the variable
+     * @param global whether the variable is a global rather than a function local
+     * @return work that looks up the variable and returns its value
+     * @throws Exception if the variable cannot be set up
+     */
+    Workload lookup(int depth, boolean global) throws Exception;
+
+    /**
+     * Finds the implementation of the workloads.
+     *
+     * @return the workloads of the interpreter on the class path
+     */
+    static Workloads load() {
+        try {
+            return (Workloads) Class.forName("SillyWorkloads").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("SillyWorkloads is not on the class path", e);
+        }
+    }
+}